@@ -0,0 +1,76 @@
+/*
+ * OrderTotalBenchmark.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.common.money;
+
+import com.shopbee.business.order.entity.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the order total in minor units with the float prices and double total it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderTotalBenchmark {
+
+    @Param({"5", "50", "500"})
+    int itemCount;
+
+    private List<OrderItem> items;
+    private List<FloatItem> floatItems;
+
+    @Setup
+    public void createItems() {
+        SplittableRandom random = new SplittableRandom(42);
+        items = new ArrayList<>(itemCount);
+        floatItems = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            long price = random.nextLong(100, 100_000);
+            int quantity = random.nextInt(1, 10);
+            OrderItem item = new OrderItem();
+            item.setPrice(price);
+            item.setQuantity(quantity);
+            items.add(item);
+            floatItems.add(new FloatItem(price / 100f, quantity));
+        }
+    }
+
+    @Benchmark
+    public long minorUnits() {
+        long totalPrice = 0;
+        for (OrderItem item : items) {
+            totalPrice = Money.plus(totalPrice, Money.times(item.getPrice(), item.getQuantity()));
+        }
+        return totalPrice;
+    }
+
+    @Benchmark
+    public double floatPrices() {
+        return floatItems.stream()
+                .mapToDouble(item -> item.price() * item.quantity())
+                .sum();
+    }
+
+    /**
+     * An order item as it was priced before, a boxed float price.
+     */
+    record FloatItem(Float price, Integer quantity) {
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * LatencyRecorder.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.load;
+
+import java.util.Arrays;
+
+/**
+ * Records the latencies of one scenario, every sample is kept so the percentiles are exact.
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+
+    public synchronized void record(long nanos, boolean error) {
+        if (error) {
+            errors++;
+            return;
+        }
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    public synchronized LoadReport.ScenarioResult result(double seconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        double mean = count == 0 ? 0 : Arrays.stream(sorted).average().orElse(0) / 1_000_000d;
+        return new LoadReport.ScenarioResult(
+                count,
+                errors,
+                count / seconds,
+                new LoadReport.Latency(
+                        percentile(sorted, 0.50),
+                        percentile(sorted, 0.90),
+                        percentile(sorted, 0.95),
+                        percentile(sorted, 0.99),
+                        count == 0 ? 0 : sorted[count - 1] / 1_000_000d,
+                        mean));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000d;
+    }
+}
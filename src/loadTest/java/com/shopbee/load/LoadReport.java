@@ -0,0 +1,89 @@
+/*
+ * LoadReport.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of a load run as written to the JSON report, latencies are in milliseconds.
+ *
+ * @param startedAt   when the recorded part of the run started
+ * @param settings    the settings of the run
+ * @param durationSeconds how long the run was recorded
+ * @param scenarios   the result per scenario
+ * @param limitations what the run does not cover, to be read with the results
+ */
+public record LoadReport(OffsetDateTime startedAt,
+                         LoadSettings settings,
+                         double durationSeconds,
+                         Map<Scenario, ScenarioResult> scenarios,
+                         List<String> limitations) {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    public void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        OBJECT_MAPPER.writeValue(path.toFile(), this);
+    }
+
+    public static LoadReport read(Path path) throws IOException {
+        return OBJECT_MAPPER.readValue(path.toFile(), LoadReport.class);
+    }
+
+    /**
+     * Compares the run with an earlier one.
+     *
+     * @param baseline      the earlier run
+     * @param maxRegression the allowed relative increase of the p99 latency and decrease of the throughput
+     * @return a description of each scenario that got slower than allowed, empty if none did
+     */
+    public List<String> regressionsAgainst(LoadReport baseline, double maxRegression) {
+        List<String> regressions = new ArrayList<>();
+        scenarios.forEach((scenario, result) -> {
+            ScenarioResult before = baseline.scenarios().get(scenario);
+            if (before == null) {
+                return;
+            }
+            if (result.latency().p99() > before.latency().p99() * (1 + maxRegression)) {
+                regressions.add("%s p99 went from %.2f ms to %.2f ms".formatted(scenario, before.latency().p99(), result.latency().p99()));
+            }
+            if (result.throughput() < before.throughput() * (1 - maxRegression)) {
+                regressions.add("%s throughput went from %.1f/s to %.1f/s".formatted(scenario, before.throughput(), result.throughput()));
+            }
+        });
+        return regressions;
+    }
+
+    /**
+     * @param requests   the number of successful requests
+     * @param errors     the number of failed requests, answered with a status of 400 or above or not at all
+     * @param throughput the successful requests per second
+     * @param latency    the latency of the successful requests
+     */
+    public record ScenarioResult(long requests, long errors, double throughput, Latency latency) {
+    }
+
+    public record Latency(double p50, double p90, double p95, double p99, double max, double mean) {
+    }
+}
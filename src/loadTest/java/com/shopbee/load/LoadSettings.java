@@ -0,0 +1,63 @@
+/*
+ * LoadSettings.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The settings of a load run, read from the {@code loadtest.*} system properties the {@code loadTest}
+ * Gradle task passes on from the {@code loadTest.*} project properties.
+ *
+ * @param tenants           the number of seeded tenants
+ * @param productsPerTenant the number of seeded products per tenant
+ * @param concurrency       the number of concurrent clients
+ * @param warmup            how long the clients run before anything is recorded
+ * @param duration          how long the clients run while recorded
+ * @param weights           how often each scenario is picked relative to the others
+ * @param report            the path of the JSON report
+ * @param baseline          the path of a report to compare with, or {@code null}
+ * @param maxRegression     the allowed increase of the p99 latency and decrease of the throughput against the baseline
+ */
+public record LoadSettings(int tenants,
+                           int productsPerTenant,
+                           int concurrency,
+                           Duration warmup,
+                           Duration duration,
+                           Map<Scenario, Integer> weights,
+                           String report,
+                           String baseline,
+                           double maxRegression) {
+
+    public static LoadSettings fromSystemProperties() {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        weights.put(Scenario.CREATE_ORDER, intProperty("weight.create-order", 2));
+        weights.put(Scenario.LIST_PRODUCTS, intProperty("weight.list-products", 5));
+        weights.put(Scenario.LIST_ORDERS, intProperty("weight.list-orders", 3));
+        return new LoadSettings(
+                intProperty("tenants", 4),
+                intProperty("products-per-tenant", 200),
+                intProperty("concurrency", 32),
+                Duration.parse(property("warmup", "PT10S")),
+                Duration.parse(property("duration", "PT60S")),
+                weights,
+                property("report", "build/reports/load-test/load-test-report.json"),
+                property("baseline", null),
+                Double.parseDouble(property("max-regression", "0.2")));
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        return Integer.parseInt(property(name, String.valueOf(defaultValue)));
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty("loadtest." + name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * LoadTestProfile.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.load;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs the application against PostgreSQL with the Liquibase schema, like production. Without
+ * {@code loadtest.jdbc-url} the database is a throwaway container started by the Quarkus Dev Services.
+ */
+public class LoadTestProfile implements QuarkusTestProfile {
+
+    @Override
+    public String getConfigProfile() {
+        return "loadtest";
+    }
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        Map<String, String> config = new HashMap<>();
+        config.put("quarkus.datasource.db-kind", "postgresql");
+        config.put("quarkus.datasource.jdbc.max-size", System.getProperty("loadtest.jdbc-max-size", "20"));
+        config.put("quarkus.hibernate-orm.database.generation", "none");
+        config.put("quarkus.hibernate-orm.sql-load-script", "no-file");
+        config.put("quarkus.liquibase.migrate-at-start", "true");
+        config.put("quarkus.http.test-port", "0");
+        config.put("quarkus.oidc.enabled", "false");
+        config.put("shopbee.tenant.admission.enabled", System.getProperty("loadtest.admission-enabled", "true"));
+        // The clients send their next request as soon as one is answered, at the default rate they would
+        // mostly measure rejections
+        config.put("shopbee.tenant.admission.requests-per-second",
+                System.getProperty("loadtest.requests-per-second", "10000"));
+        config.put("shopbee.tenant.bulkhead.enabled", System.getProperty("loadtest.bulkhead-enabled", "true"));
+        config.put("shopbee.security.auth-server-url", "http://localhost:8080/realms/master");
+        config.put("shopbee.security.issuer", "http://localhost:8080/realms/master");
+        config.put("shopbee.security.client-id", "shopbee");
+
+        String jdbcUrl = System.getProperty("loadtest.jdbc-url");
+        if (jdbcUrl != null && !jdbcUrl.isBlank()) {
+            config.put("quarkus.datasource.devservices.enabled", "false");
+            config.put("quarkus.datasource.jdbc.url", jdbcUrl);
+            config.put("quarkus.datasource.username", System.getProperty("loadtest.jdbc-username", "postgres"));
+            config.put("quarkus.datasource.password", System.getProperty("loadtest.jdbc-password", ""));
+        }
+        return config;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * OrderLoadTest.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.load;
+
+import com.shopbee.business.product.control.repository.ProductRepository;
+import com.shopbee.business.product.entity.Product;
+import com.shopbee.business.tenant.control.catalogue.TenantCatalogue;
+import com.shopbee.business.tenant.control.repository.TenantRepository;
+import com.shopbee.business.tenant.entity.Tenant;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds tenants and products, then runs concurrent clients creating and listing orders and listing
+ * products for a fixed time and writes the throughput and latency percentiles per request to a JSON report.
+ * <p>
+ * Run with {@code ./gradlew loadTest}, the settings are described in {@link LoadSettings}. With a baseline
+ * report the run fails when a request got slower than allowed.
+ * </p>
+ * <p>
+ * No users are seeded: the order API still places and lists every order for a placeholder user, so all
+ * clients of a tenant share one order history. The report lists this under its limitations.
+ * </p>
+ */
+@QuarkusTest
+@TestProfile(LoadTestProfile.class)
+class OrderLoadTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OrderLoadTest.class);
+    private static final int STOCK = 100_000_000;
+    private static final List<String> LIMITATIONS = List.of(
+            "The order API uses the placeholder user id temp-user-id, so all orders of a tenant belong to one user "
+                    + "and LIST_ORDERS pages through the order history of all clients of the tenant");
+
+    @Inject
+    TenantRepository tenantRepository;
+
+    @Inject
+    TenantCatalogue tenantCatalogue;
+
+    @Inject
+    ProductRepository productRepository;
+
+    private final LoadSettings settings = LoadSettings.fromSystemProperties();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void orderPath() throws Exception {
+        Map<String, List<String>> productIds = seed();
+        URI baseUri = baseUri();
+
+        drive(baseUri, productIds, settings.warmup(), null);
+        Map<Scenario, LatencyRecorder> recorders = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            recorders.put(scenario, new LatencyRecorder());
+        }
+        OffsetDateTime startedAt = OffsetDateTime.now();
+        long start = System.nanoTime();
+        drive(baseUri, productIds, settings.duration(), recorders);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+
+        Map<Scenario, LoadReport.ScenarioResult> results = new EnumMap<>(Scenario.class);
+        recorders.forEach((scenario, recorder) -> results.put(scenario, recorder.result(seconds)));
+        LoadReport report = new LoadReport(startedAt, settings, seconds, results, LIMITATIONS);
+        report.write(Path.of(settings.report()));
+        results.forEach((scenario, result) -> LOG.warn("{}: {} requests, {} errors, {}/s, p50 {} ms, p99 {} ms",
+                scenario, result.requests(), result.errors(), String.format("%.1f", result.throughput()),
+                result.latency().p50(), result.latency().p99()));
+
+        assertThat(results.values()).allSatisfy(result -> assertThat(result.errors()).isZero());
+        if (settings.baseline() != null) {
+            assertThat(report.regressionsAgainst(LoadReport.read(Path.of(settings.baseline())), settings.maxRegression())).isEmpty();
+        }
+    }
+
+    private Map<String, List<String>> seed() {
+        // Names are unique per run so an external database can be reused between runs
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        Map<String, List<String>> productIds = new LinkedHashMap<>();
+        for (int t = 0; t < settings.tenants(); t++) {
+            String tenantId = "load-" + run + "-" + t;
+            Tenant tenant = new Tenant();
+            tenant.setName(tenantId);
+            tenant.setStatus(Tenant.Status.ACTIVE);
+            productIds.put(tenantId, QuarkusTransaction.requiringNew().call(() -> seedTenant(tenant)));
+            // Published like a tenant write, so each tenant gets its own admission limit and bulkhead compartment
+            tenantCatalogue.put(tenant);
+        }
+        return productIds;
+    }
+
+    private List<String> seedTenant(Tenant tenant) {
+        String tenantId = tenant.getName();
+        tenantRepository.persist(tenant);
+
+        List<String> ids = new ArrayList<>();
+        for (int p = 0; p < settings.productsPerTenant(); p++) {
+            Product product = new Product();
+            product.setTenantId(tenantId);
+            product.setName("Product " + p);
+            product.setSku(tenantId + "-" + p);
+            product.setCategory("category-" + p % 10);
+            product.setPrice(100L + p);
+            product.setStockQuantity(STOCK);
+            product.setStatus(Product.Status.AVAILABLE);
+            productRepository.persist(product);
+            ids.add(product.getId());
+        }
+        return ids;
+    }
+
+    private void drive(URI baseUri, Map<String, List<String>> productIds, Duration duration,
+                       Map<Scenario, LatencyRecorder> recorders) throws InterruptedException {
+        List<String> tenantIds = List.copyOf(productIds.keySet());
+        Scenario[] picks = picks();
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < settings.concurrency(); c++) {
+                clients.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        String tenantId = tenantIds.get(random.nextInt(tenantIds.size()));
+                        Scenario scenario = picks[random.nextInt(picks.length)];
+                        HttpRequest request = request(baseUri, tenantId, scenario, productIds.get(tenantId), random);
+                        long start = System.nanoTime();
+                        boolean error;
+                        try {
+                            error = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+                        } catch (Exception e) {
+                            error = true;
+                        }
+                        if (recorders != null) {
+                            recorders.get(scenario).record(System.nanoTime() - start, error);
+                        }
+                    }
+                });
+            }
+            clients.shutdown();
+            clients.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        }
+    }
+
+    private HttpRequest request(URI baseUri, String tenantId, Scenario scenario, List<String> productIds,
+                                ThreadLocalRandom random) {
+        HttpRequest.Builder request = HttpRequest.newBuilder().header("tenantId", tenantId).timeout(Duration.ofSeconds(30));
+        return switch (scenario) {
+            case CREATE_ORDER -> {
+                StringBuilder items = new StringBuilder();
+                int count = random.nextInt(1, 4);
+                for (int i = 0; i < count; i++) {
+                    if (i > 0) {
+                        items.append(',');
+                    }
+                    String productId = productIds.get(random.nextInt(productIds.size()));
+                    items.append("{\"productId\":\"").append(productId).append("\",\"quantity\":").append(random.nextInt(1, 4)).append('}');
+                }
+                yield request.uri(baseUri.resolve("orders"))
+                        .header("Content-Type", "application/json")
+                        .header("Idempotency-Key", UUID.randomUUID().toString())
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"items\":[" + items + "]}"))
+                        .build();
+            }
+            case LIST_PRODUCTS -> request.uri(baseUri.resolve("products?limit=20")).GET().build();
+            case LIST_ORDERS -> request.uri(baseUri.resolve("orders?limit=20")).GET().build();
+        };
+    }
+
+    private Scenario[] picks() {
+        List<Scenario> picks = new ArrayList<>();
+        settings.weights().forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                picks.add(scenario);
+            }
+        });
+        assertThat(picks).as("scenario weights").isNotEmpty();
+        return picks.toArray(Scenario[]::new);
+    }
+
+    private static URI baseUri() {
+        int port = ConfigProvider.getConfig().getValue("quarkus.http.test-port", Integer.class);
+        String rootPath = ConfigProvider.getConfig().getOptionalValue("quarkus.http.root-path", String.class).orElse("/");
+        String path = rootPath.endsWith("/") ? rootPath : rootPath + "/";
+        return URI.create("http://localhost:" + port + path);
+    }
+}
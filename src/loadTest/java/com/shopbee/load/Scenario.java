@@ -0,0 +1,29 @@
+/*
+ * Scenario.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.load;
+
+/**
+ * The requests a load client sends.
+ */
+public enum Scenario {
+
+    /**
+     * {@code POST /orders} with one to three seeded products of the tenant.
+     */
+    CREATE_ORDER,
+
+    /**
+     * {@code GET /products}, the first page.
+     */
+    LIST_PRODUCTS,
+
+    /**
+     * {@code GET /orders}, the first page.
+     */
+    LIST_ORDERS
+}
@@ -0,0 +1,49 @@
+package com.shopbee.business.cart.boundary.api;
+
+import com.shopbee.business.cart.control.service.CartService;
+import com.shopbee.cart.boundary.api.CartApi;
+import com.shopbee.cart.model.AddCartItemRequest;
+import com.shopbee.cart.model.SetCartItemQuantityRequest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+
+public class CartApiImpl implements CartApi {
+
+    private final CartService cartService;
+
+    @Inject
+    public CartApiImpl(CartService cartService) {
+        this.cartService = cartService;
+    }
+
+    @Override
+    public Response getCart(String tenantId) {
+        String userId = "temp-user-id"; // Placeholder
+        return Response.ok(cartService.getCart(tenantId, userId)).build();
+    }
+
+    @Override
+    public Response clearCart(String tenantId) {
+        String userId = "temp-user-id"; // Placeholder
+        cartService.clearCart(tenantId, userId);
+        return Response.noContent().build();
+    }
+
+    @Override
+    public Response addCartItem(String tenantId, AddCartItemRequest addCartItemRequest) {
+        String userId = "temp-user-id"; // Placeholder
+        return Response.ok(cartService.addItem(tenantId, userId, addCartItemRequest)).build();
+    }
+
+    @Override
+    public Response setCartItemQuantity(String tenantId, String productId, SetCartItemQuantityRequest setCartItemQuantityRequest) {
+        String userId = "temp-user-id"; // Placeholder
+        return Response.ok(cartService.setItemQuantity(tenantId, userId, productId, setCartItemQuantityRequest)).build();
+    }
+
+    @Override
+    public Response removeCartItem(String tenantId, String productId) {
+        String userId = "temp-user-id"; // Placeholder
+        return Response.ok(cartService.removeItem(tenantId, userId, productId)).build();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * CartRepository.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.cart.control.repository;
+
+import com.shopbee.business.cart.entity.Cart;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cart is stored as one row per product in it.
+ */
+@ApplicationScoped
+public class CartRepository implements PanacheRepositoryBase<Cart, String> {
+
+    /**
+     * Reads the cart of a user.
+     *
+     * @param tenantId the tenant id
+     * @param userId   the user id
+     * @return the quantity per product id, in the order the products were added
+     */
+    public Map<String, Integer> findLines(String tenantId, String userId) {
+        Map<String, Integer> lines = new LinkedHashMap<>();
+        find("tenantId = ?1 AND userId = ?2", Sort.by("position"), tenantId, userId)
+                .stream()
+                .forEach(cart -> lines.put(cart.getProductId(), cart.getQuantity()));
+        return lines;
+    }
+
+    /**
+     * Replaces the stored carts of the given users.
+     *
+     * @param tenantId the tenant id
+     * @param carts    the quantity per product id per user id, an empty cart removes the stored one
+     */
+    public void replace(String tenantId, Map<String, Map<String, Integer>> carts) {
+        deleteByUserIds(tenantId, carts.keySet());
+        carts.forEach((userId, lines) -> {
+            int position = 0;
+            for (Map.Entry<String, Integer> line : lines.entrySet()) {
+                Cart cart = new Cart();
+                cart.setTenantId(tenantId);
+                cart.setUserId(userId);
+                cart.setProductId(line.getKey());
+                cart.setQuantity(line.getValue());
+                cart.setPosition(position++);
+                persist(cart);
+            }
+        });
+    }
+
+    public long deleteByUserIds(String tenantId, Collection<String> userIds) {
+        return delete("tenantId = ?1 AND userId IN ?2", tenantId, userIds);
+    }
+}
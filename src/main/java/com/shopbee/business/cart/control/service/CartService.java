@@ -0,0 +1,45 @@
+/*
+ * CartService.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.cart.control.service;
+
+import com.shopbee.cart.model.AddCartItemRequest;
+import com.shopbee.cart.model.CartDTO;
+import com.shopbee.cart.model.SetCartItemQuantityRequest;
+
+import java.util.Map;
+
+public interface CartService {
+
+    CartDTO getCart(String tenantId, String userId);
+
+    CartDTO addItem(String tenantId, String userId, AddCartItemRequest addCartItemRequest);
+
+    CartDTO setItemQuantity(String tenantId, String userId, String productId, SetCartItemQuantityRequest setCartItemQuantityRequest);
+
+    CartDTO removeItem(String tenantId, String userId, String productId);
+
+    void clearCart(String tenantId, String userId);
+
+    /**
+     * Reads the lines of a cart.
+     *
+     * @param tenantId the tenant id
+     * @param userId   the user id
+     * @return the quantity per product id, in the order the products were added
+     */
+    Map<String, Integer> getLines(String tenantId, String userId);
+
+    /**
+     * Takes ordered quantities out of a cart, products added or increased in the meantime keep the difference.
+     *
+     * @param tenantId the tenant id
+     * @param userId   the user id
+     * @param ordered  the ordered quantity per product id
+     */
+    void removeOrdered(String tenantId, String userId, Map<String, Integer> ordered);
+}
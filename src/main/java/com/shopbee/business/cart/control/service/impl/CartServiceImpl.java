@@ -0,0 +1,103 @@
+/*
+ * CartServiceImpl.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.cart.control.service.impl;
+
+import com.shopbee.business.cart.control.service.CartService;
+import com.shopbee.business.cart.control.store.CartConfig;
+import com.shopbee.business.cart.control.store.CartStore;
+import com.shopbee.business.product.control.service.ProductService;
+import com.shopbee.cart.model.AddCartItemRequest;
+import com.shopbee.cart.model.CartDTO;
+import com.shopbee.cart.model.CartItemDTO;
+import com.shopbee.cart.model.SetCartItemQuantityRequest;
+import com.shopbee.common.exception.ApiServiceException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+import java.util.Map;
+
+@ApplicationScoped
+public class CartServiceImpl implements CartService {
+
+    private final CartStore cartStore;
+    private final CartConfig cartConfig;
+    private final ProductService productService;
+
+    @Inject
+    public CartServiceImpl(CartStore cartStore, CartConfig cartConfig, ProductService productService) {
+        this.cartStore = cartStore;
+        this.cartConfig = cartConfig;
+        this.productService = productService;
+    }
+
+    @Override
+    public CartDTO getCart(String tenantId, String userId) {
+        return toCartDTO(cartStore.read(tenantId, userId));
+    }
+
+    @Override
+    public CartDTO addItem(String tenantId, String userId, AddCartItemRequest addCartItemRequest) {
+        String productId = addCartItemRequest.getProductId();
+        int quantity = addCartItemRequest.getQuantity();
+        // Throws not found for unknown products, served from the product cache
+        productService.getProductById(tenantId, productId);
+        return toCartDTO(cartStore.update(tenantId, userId, lines -> {
+            checkCapacity(lines, productId);
+            lines.merge(productId, quantity, Integer::sum);
+        }));
+    }
+
+    @Override
+    public CartDTO setItemQuantity(String tenantId, String userId, String productId,
+                                   SetCartItemQuantityRequest setCartItemQuantityRequest) {
+        int quantity = setCartItemQuantityRequest.getQuantity();
+        if (quantity <= 0) {
+            return removeItem(tenantId, userId, productId);
+        }
+        productService.getProductById(tenantId, productId);
+        return toCartDTO(cartStore.update(tenantId, userId, lines -> {
+            checkCapacity(lines, productId);
+            lines.put(productId, quantity);
+        }));
+    }
+
+    @Override
+    public CartDTO removeItem(String tenantId, String userId, String productId) {
+        return toCartDTO(cartStore.update(tenantId, userId, lines -> lines.remove(productId)));
+    }
+
+    @Override
+    public void clearCart(String tenantId, String userId) {
+        cartStore.update(tenantId, userId, Map::clear);
+    }
+
+    @Override
+    public Map<String, Integer> getLines(String tenantId, String userId) {
+        return cartStore.read(tenantId, userId);
+    }
+
+    @Override
+    public void removeOrdered(String tenantId, String userId, Map<String, Integer> ordered) {
+        cartStore.update(tenantId, userId, lines -> ordered.forEach((productId, quantity) ->
+                lines.computeIfPresent(productId, (id, inCart) -> inCart > quantity ? inCart - quantity : null)));
+    }
+
+    private void checkCapacity(Map<String, Integer> lines, String productId) {
+        if (!lines.containsKey(productId) && lines.size() >= cartConfig.maxItems()) {
+            throw ApiServiceException.badRequest("The cart cannot hold more than {} products", cartConfig.maxItems());
+        }
+    }
+
+    private CartDTO toCartDTO(Map<String, Integer> lines) {
+        List<CartItemDTO> items = lines.entrySet().stream()
+                .map(line -> new CartItemDTO().productId(line.getKey()).quantity(line.getValue()))
+                .toList();
+        return new CartDTO().items(items);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * CartConfig.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.cart.control.store;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+@ConfigMapping(prefix = "shopbee.cart")
+public interface CartConfig {
+
+    /**
+     * The maximum number of carts held in memory, further carts are read and written in the database directly.
+     */
+    @WithDefault("100000")
+    int maxEntries();
+
+    /**
+     * How long a cart stays in memory after it was last used, once it has been written out.
+     */
+    @WithDefault("30m")
+    Duration ttl();
+
+    /**
+     * How often changed carts are written to the database.
+     */
+    @WithDefault("5s")
+    Duration flushInterval();
+
+    /**
+     * The maximum number of carts written per transaction.
+     */
+    @WithDefault("500")
+    int flushBatchSize();
+
+    /**
+     * The maximum number of different products in a cart.
+     */
+    @WithDefault("100")
+    int maxItems();
+}
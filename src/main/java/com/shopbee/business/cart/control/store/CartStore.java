@@ -0,0 +1,196 @@
+/*
+ * CartStore.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.cart.control.store;
+
+import com.shopbee.business.cart.control.repository.CartRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.apache.commons.collections4.ListUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * Carts held in memory and written behind to {@code shopbee_cart}.
+ * <p>
+ * A cart is loaded the first time it is used and then changed in memory only, {@link CartWriteBehind} writes
+ * the changed carts out in batches and drops the ones unused for longer than the TTL once they are written.
+ * When the store is full, further carts are read and written in the database directly. Carts are held by the
+ * instance serving the user, so deployments with several instances route a user to the same instance.
+ * </p>
+ */
+@ApplicationScoped
+public class CartStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CartStore.class);
+
+    private final ConcurrentMap<Key, Entry> carts = new ConcurrentHashMap<>();
+
+    private final CartRepository cartRepository;
+    private final CartConfig cartConfig;
+
+    @Inject
+    public CartStore(CartRepository cartRepository, CartConfig cartConfig, MeterRegistry meterRegistry) {
+        this.cartRepository = cartRepository;
+        this.cartConfig = cartConfig;
+        meterRegistry.gaugeMapSize("shopbee.cart.store.entries", Tags.empty(), carts);
+    }
+
+    /**
+     * Reads a cart.
+     *
+     * @param tenantId the tenant id
+     * @param userId   the user id
+     * @return the quantity per product id, in the order the products were added
+     */
+    public Map<String, Integer> read(String tenantId, String userId) {
+        while (true) {
+            Entry entry = entry(tenantId, userId);
+            if (entry == null) {
+                return QuarkusTransaction.requiringNew().call(() -> cartRepository.findLines(tenantId, userId));
+            }
+            synchronized (entry) {
+                if (!entry.evicted) {
+                    entry.lastUsed = System.nanoTime();
+                    return snapshot(entry.lines);
+                }
+            }
+        }
+    }
+
+    /**
+     * Changes a cart, the change is applied to the lines of the cart while no other change runs on it.
+     *
+     * @param tenantId the tenant id
+     * @param userId   the user id
+     * @param change   the change of the quantity per product id, may throw to leave the cart unchanged
+     * @return the cart after the change
+     */
+    public Map<String, Integer> update(String tenantId, String userId, Consumer<Map<String, Integer>> change) {
+        while (true) {
+            Entry entry = entry(tenantId, userId);
+            if (entry == null) {
+                return QuarkusTransaction.requiringNew().call(() -> updateInDatabase(tenantId, userId, change));
+            }
+            synchronized (entry) {
+                if (!entry.evicted) {
+                    Map<String, Integer> lines = new LinkedHashMap<>(entry.lines);
+                    change.accept(lines);
+                    entry.lines = lines;
+                    entry.version++;
+                    entry.lastUsed = System.nanoTime();
+                    return snapshot(lines);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the changed carts to the database and drops the carts unused for longer than the TTL.
+     *
+     * @return the number of carts written
+     */
+    public int flush() {
+        long expiredBefore = System.nanoTime() - cartConfig.ttl().toNanos();
+        List<Pending> pending = new ArrayList<>();
+        for (Map.Entry<Key, Entry> cart : carts.entrySet()) {
+            Entry entry = cart.getValue();
+            synchronized (entry) {
+                if (entry.version != entry.writtenVersion) {
+                    pending.add(new Pending(cart.getKey(), entry, entry.lines, entry.version));
+                } else if (entry.lastUsed - expiredBefore < 0) {
+                    entry.evicted = true;
+                    carts.remove(cart.getKey(), entry);
+                }
+            }
+        }
+
+        int written = 0;
+        for (List<Pending> batch : ListUtils.partition(pending, Math.max(1, cartConfig.flushBatchSize()))) {
+            try {
+                QuarkusTransaction.requiringNew().run(() -> write(batch));
+            } catch (RuntimeException e) {
+                LOG.warn("Failed to write {} carts, retrying on the next flush", batch.size(), e);
+                continue;
+            }
+            for (Pending cart : batch) {
+                synchronized (cart.entry()) {
+                    cart.entry().writtenVersion = Math.max(cart.entry().writtenVersion, cart.version());
+                }
+            }
+            written += batch.size();
+        }
+        return written;
+    }
+
+    private Entry entry(String tenantId, String userId) {
+        Key key = new Key(tenantId, userId);
+        Entry entry = carts.get(key);
+        if (entry != null || carts.size() >= cartConfig.maxEntries()) {
+            return entry;
+        }
+        Map<String, Integer> lines = QuarkusTransaction.requiringNew().call(() -> cartRepository.findLines(tenantId, userId));
+        // A concurrent load of the same cart read the same rows, whichever got in first is kept
+        Entry loaded = new Entry(lines);
+        entry = carts.putIfAbsent(key, loaded);
+        return entry == null ? loaded : entry;
+    }
+
+    private Map<String, Integer> updateInDatabase(String tenantId, String userId, Consumer<Map<String, Integer>> change) {
+        Map<String, Integer> lines = cartRepository.findLines(tenantId, userId);
+        change.accept(lines);
+        cartRepository.replace(tenantId, Map.of(userId, lines));
+        return snapshot(lines);
+    }
+
+    private void write(List<Pending> batch) {
+        Map<String, Map<String, Map<String, Integer>>> byTenant = new HashMap<>();
+        for (Pending cart : batch) {
+            byTenant.computeIfAbsent(cart.key().tenantId(), tenantId -> new HashMap<>()).put(cart.key().userId(), cart.lines());
+        }
+        byTenant.forEach(cartRepository::replace);
+    }
+
+    private static Map<String, Integer> snapshot(Map<String, Integer> lines) {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(lines));
+    }
+
+    private record Key(String tenantId, String userId) {
+    }
+
+    /**
+     * A cart in memory, the lines are replaced on every change so a pending write keeps the lines it read.
+     */
+    private static final class Entry {
+
+        private Map<String, Integer> lines;
+        private long version;
+        private long writtenVersion;
+        private long lastUsed = System.nanoTime();
+        private boolean evicted;
+
+        private Entry(Map<String, Integer> lines) {
+            this.lines = lines;
+        }
+    }
+
+    private record Pending(Key key, Entry entry, Map<String, Integer> lines, long version) {
+    }
+}
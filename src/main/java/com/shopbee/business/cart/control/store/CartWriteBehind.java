@@ -0,0 +1,44 @@
+/*
+ * CartWriteBehind.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.cart.control.store;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the changed carts of the {@link CartStore} behind to the database, and once more on shutdown.
+ */
+@ApplicationScoped
+public class CartWriteBehind {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CartWriteBehind.class);
+
+    private final CartStore cartStore;
+
+    @Inject
+    public CartWriteBehind(CartStore cartStore) {
+        this.cartStore = cartStore;
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        int written = cartStore.flush();
+        if (written > 0) {
+            LOG.info("Wrote {} carts on shutdown", written);
+        }
+    }
+
+    @Scheduled(every = "${shopbee.cart.flush-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void flush() {
+        cartStore.flush();
+    }
+}
@@ -5,7 +5,7 @@
  * MIT License: https://mit-license.org
  */
 
-package com.shopbee.business.entity;
+package com.shopbee.business.cart.entity;
 
 import com.shopbee.business.user.entity.AbstractEntity;
 import jakarta.persistence.Column;
@@ -14,9 +14,13 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
+/**
+ * A product in the cart of a user, the cart being all the rows of the user.
+ */
 @Entity
-@Table(name = "shopbee_cart")
+@Table(name = "shopbee_cart", uniqueConstraints = {@UniqueConstraint(columnNames = {"tenant_id", "user_id", "product_id"})})
 public class Cart extends AbstractEntity {
 
     @Id
@@ -32,6 +36,9 @@ public class Cart extends AbstractEntity {
     @Column(nullable = false)
     private int quantity;
 
+    @Column(nullable = false)
+    private int position;
+
     public String getId() {
         return id;
     }
@@ -63,4 +70,12 @@ public class Cart extends AbstractEntity {
     public void setQuantity(int quantity) {
         this.quantity = quantity;
     }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
 }
@@ -8,6 +8,7 @@
 package com.shopbee.business.image.boundary.api;
 
 import com.shopbee.business.image.control.service.ImagesService;
+import com.shopbee.common.pagination.CursorPage;
 import com.shopbee.image.boundary.api.ImagesApi;
 import com.shopbee.image.model.UploadImageRequest;
 import jakarta.inject.Inject;
@@ -28,8 +29,9 @@ public class ImagesApiImpl implements ImagesApi {
     }
 
     @Override
-    public Response getImages(String tenantId, Integer page, Integer size) {
-        return Response.ok(imagesService.getImages(tenantId, page, size)).build();
+    public Response getImages(String tenantId, Integer page, Integer size, String cursor) {
+        var images = imagesService.getImages(tenantId, page, size, cursor);
+        return Response.ok(images.items()).header(CursorPage.NEXT_CURSOR_HEADER, images.nextCursor()).build();
     }
 
     @Override
@@ -8,7 +8,9 @@
 package com.shopbee.business.image.control.repository;
 
 import com.shopbee.business.image.entity.Image;
+import com.shopbee.common.pagination.PageCursor;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 
 import java.util.List;
@@ -16,8 +18,17 @@ import java.util.List;
 @ApplicationScoped
 public class ImagesRepository implements PanacheRepositoryBase<Image, String> {
 
+    private static final Sort KEYSET_ORDER = Sort.by("createdAt").and("id");
+
     public List<Image> find(String tenantId, int page, int size) {
-        return find("tenantId", tenantId).page(page, size).list();
+        return find("tenantId", KEYSET_ORDER, tenantId).page(page, size).list();
+    }
+
+    public List<Image> findAfter(String tenantId, PageCursor cursor, int size) {
+        return find("tenantId = ?1 AND (createdAt > ?2 OR (createdAt = ?2 AND id > ?3))", KEYSET_ORDER,
+                tenantId, cursor.createdAt(), cursor.id())
+                .range(0, size - 1)
+                .list();
     }
 
     public Image findById(String tenantId, String imageId) {
@@ -1,14 +1,13 @@
 package com.shopbee.business.image.control.service;
 
+import com.shopbee.common.pagination.CursorPage;
 import com.shopbee.image.model.GetImages200ResponseInner;
 import com.shopbee.image.model.ImageDTO;
 import com.shopbee.image.model.UploadImageRequest;
 
-import java.util.List;
-
 public interface ImagesService {
 
-    List<GetImages200ResponseInner> getImages(String tenantId, Integer page, Integer size);
+    CursorPage<GetImages200ResponseInner> getImages(String tenantId, Integer page, Integer size, String cursor);
 
     ImageDTO getImageById(String tenantId, String imageId);
 
@@ -8,6 +8,8 @@
 package com.shopbee.business.image.control.service.impl;
 
 import com.shopbee.common.exception.ApiServiceException;
+import com.shopbee.common.pagination.CursorPage;
+import com.shopbee.common.pagination.PageCursor;
 import com.shopbee.business.image.control.mapper.ImageMapper;
 import com.shopbee.business.image.control.repository.ImagesRepository;
 import com.shopbee.business.image.control.service.ImagesService;
@@ -39,9 +41,13 @@ public class ImagesServiceImpl implements ImagesService {
     }
 
     @Override
-    public List<GetImages200ResponseInner> getImages(String tenantId, Integer page, Integer size) {
-        List<Image> images = imagesRepository.find(tenantId, page, size);
-        return imageMapper.toGetImagesResponseInners(images);
+    public CursorPage<GetImages200ResponseInner> getImages(String tenantId, Integer page, Integer size, String cursor) {
+        PageCursor after = PageCursor.decode(cursor);
+        List<Image> images = after == null
+                ? imagesRepository.find(tenantId, page, size)
+                : imagesRepository.findAfter(tenantId, after, size);
+        String nextCursor = PageCursor.next(images, size, image -> new PageCursor(image.getCreatedAt(), image.getId()));
+        return new CursorPage<>(imageMapper.toGetImagesResponseInners(images), nextCursor);
     }
 
     @Override
@@ -1,7 +1,9 @@
 package com.shopbee.business.order.boundary.api;
 
 import com.shopbee.business.order.control.service.OrderService;
+import com.shopbee.common.pagination.CursorPage;
 import com.shopbee.order.boundary.api.OrdersApi;
+import com.shopbee.order.model.BulkOrderStatusRequest;
 import com.shopbee.order.model.CreateOrderRequest;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.core.Context;
@@ -19,19 +21,33 @@ public class OrderApiImpl implements OrdersApi {
     UriInfo uriInfo;
 
     @Override
-    public Response createOrder(String tenantId, CreateOrderRequest createOrderRequest) {
+    public Response createOrder(String tenantId, CreateOrderRequest createOrderRequest, String idempotencyKey) {
         // In a real app, the user ID would come from the JWT token (SecurityContext)
         String userId = "temp-user-id"; // Placeholder
-        var order = orderService.createOrder(tenantId, userId, createOrderRequest);
+        var order = orderService.createOrder(tenantId, userId, idempotencyKey, createOrderRequest);
         URI location = uriInfo.getAbsolutePathBuilder().path(order.getId()).build();
         return Response.created(location).entity(order).build();
     }
 
     @Override
-    public Response getOrders(String tenantId, Integer offset, Integer limit) {
+    public Response checkout(String tenantId, String idempotencyKey) {
         String userId = "temp-user-id"; // Placeholder
-        var orders = orderService.getOrders(tenantId, userId, offset, limit);
-        return Response.ok(orders).build();
+        var order = orderService.checkout(tenantId, userId, idempotencyKey);
+        URI location = uriInfo.getBaseUriBuilder().path("orders").path(order.getId()).build();
+        return Response.created(location).entity(order).build();
+    }
+
+    @Override
+    public Response getOrders(String tenantId, Integer offset, Integer limit, String cursor) {
+        String userId = "temp-user-id"; // Placeholder
+        var orders = orderService.getOrders(tenantId, userId, offset, limit, cursor);
+        return Response.ok(orders.items()).header(CursorPage.NEXT_CURSOR_HEADER, orders.nextCursor()).build();
+    }
+
+    @Override
+    public Response getOrderSummary(String tenantId) {
+        String userId = "temp-user-id"; // Placeholder
+        return Response.ok(orderService.getOrderSummary(tenantId, userId)).build();
     }
 
     @Override
@@ -47,4 +63,9 @@ public class OrderApiImpl implements OrdersApi {
         var order = orderService.cancelOrder(tenantId, userId, orderId);
         return Response.ok(order).build();
     }
+
+    @Override
+    public Response updateOrderStatuses(String tenantId, BulkOrderStatusRequest bulkOrderStatusRequest) {
+        return Response.ok(orderService.updateOrderStatuses(tenantId, bulkOrderStatusRequest)).build();
+    }
 }
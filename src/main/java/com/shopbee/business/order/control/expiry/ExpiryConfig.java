@@ -0,0 +1,35 @@
+/*
+ * ExpiryConfig.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.expiry;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+@ConfigMapping(prefix = "shopbee.order.expiry")
+public interface ExpiryConfig {
+
+    /**
+     * How long an order may stay created or pending payment before it is cancelled and its stock released.
+     */
+    @WithDefault("30m")
+    Duration reservationTimeout();
+
+    /**
+     * How often expired orders are looked for.
+     */
+    @WithDefault("1m")
+    Duration sweepInterval();
+
+    /**
+     * The maximum number of orders cancelled per transaction.
+     */
+    @WithDefault("200")
+    int batchSize();
+}
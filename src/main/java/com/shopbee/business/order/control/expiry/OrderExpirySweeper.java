@@ -0,0 +1,149 @@
+/*
+ * OrderExpirySweeper.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.expiry;
+
+import com.shopbee.business.order.control.outbox.OrderOutbox;
+import com.shopbee.business.order.control.repository.OrderRepository;
+import com.shopbee.business.order.control.summary.OrderSummaries;
+import com.shopbee.business.order.entity.Order;
+import com.shopbee.business.order.entity.OrderItem;
+import com.shopbee.business.product.control.stock.StockLedger;
+import com.shopbee.business.product.control.stock.StockWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cancels the orders whose stock reservation expired and gives their stock back. Each batch locks the oldest
+ * expired orders with {@code FOR UPDATE SKIP LOCKED}, so several instances sweep side by side without
+ * cancelling an order twice. The stock is journaled in the transaction of the batch, so it is given back
+ * exactly when the cancellations commit. The sweeper writes the stock journal itself rather than through the
+ * product service, whose tenant bulkhead would reject a batch for a busy tenant.
+ */
+@ApplicationScoped
+public class OrderExpirySweeper {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OrderExpirySweeper.class);
+    private static final Set<Order.Status> RESERVING_STATUSES = Set.of(Order.Status.CREATED, Order.Status.PENDING_PAYMENT);
+
+    private final OrderRepository orderRepository;
+    private final OrderOutbox orderOutbox;
+    private final OrderSummaries orderSummaries;
+    private final StockWriter stockWriter;
+    private final StockLedger stockLedger;
+    private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+    private final ExpiryConfig expiryConfig;
+    private final MeterRegistry meterRegistry;
+
+    @Inject
+    public OrderExpirySweeper(OrderRepository orderRepository,
+                              OrderOutbox orderOutbox,
+                              OrderSummaries orderSummaries,
+                              StockWriter stockWriter,
+                              StockLedger stockLedger,
+                              TransactionSynchronizationRegistry transactionSynchronizationRegistry,
+                              ExpiryConfig expiryConfig,
+                              MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.orderOutbox = orderOutbox;
+        this.orderSummaries = orderSummaries;
+        this.stockWriter = stockWriter;
+        this.stockLedger = stockLedger;
+        this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+        this.expiryConfig = expiryConfig;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(every = "${shopbee.order.expiry.sweep-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void sweep() {
+        int cancelled = meterRegistry.timer("shopbee.order.expiry.sweep.duration").record(this::sweepAll);
+        if (cancelled > 0) {
+            LOG.info("Cancelled {} orders with an expired stock reservation", cancelled);
+        }
+    }
+
+    private int sweepAll() {
+        int batchSize = Math.max(1, expiryConfig.batchSize());
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(expiryConfig.reservationTimeout());
+        int total = 0;
+        int cancelled;
+        do {
+            cancelled = QuarkusTransaction.requiringNew().call(() -> cancelBatch(cutoff, batchSize));
+            total += cancelled;
+        } while (cancelled == batchSize);
+        return total;
+    }
+
+    private int cancelBatch(OffsetDateTime cutoff, int batchSize) {
+        List<Order> orders = orderRepository.lockCreatedBefore(RESERVING_STATUSES, cutoff, batchSize);
+        orderRepository.fetchItems(orders);
+        Map<String, Map<Order.Status, List<Order>>> groups = new HashMap<>();
+        Map<String, Map<String, Integer>> reserved = new HashMap<>();
+        for (Order order : orders) {
+            groups.computeIfAbsent(order.getTenantId(), tenantId -> new EnumMap<>(Order.Status.class))
+                    .computeIfAbsent(order.getStatus(), status -> new ArrayList<>())
+                    .add(order);
+            Map<String, Integer> quantities = reserved.computeIfAbsent(order.getTenantId(), tenantId -> new LinkedHashMap<>());
+            for (OrderItem item : order.getItems()) {
+                quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        groups.forEach((tenantId, byStatus) -> byStatus.forEach((fromStatus, expired) -> {
+            List<String> orderIds = expired.stream().map(Order::getId).toList();
+            orderRepository.updateStatus(tenantId, orderIds, fromStatus, Order.Status.CANCELLED);
+            expired.forEach(order -> orderOutbox.record(tenantId, order.getId(), order.getUserId(), fromStatus, Order.Status.CANCELLED));
+            orderSummaries.statusesChanged(tenantId, orderIds, fromStatus, Order.Status.CANCELLED);
+        }));
+        // A failure rolls the cancellations back with the release, the next sweep picks the orders up again
+        int releasedUnits = 0;
+        for (Map.Entry<String, Map<String, Integer>> entry : reserved.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+            stockWriter.journalInTransaction(entry.getKey(), entry.getValue());
+            // Ledger counters loaded before the commit do not include these entries, they reload once it committed
+            entry.getValue().keySet().forEach(productId -> stockLedger.evict(entry.getKey(), productId));
+            releasedUnits += entry.getValue().values().stream().mapToInt(Integer::intValue).sum();
+        }
+        countOnCommit(orders.size(), releasedUnits);
+        return orders.size();
+    }
+
+    private void countOnCommit(int cancelled, int releasedUnits) {
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+                // Nothing to do before completion
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    meterRegistry.counter("shopbee.order.expiry.released.units").increment(releasedUnits);
+                    meterRegistry.counter("shopbee.order.expiry.cancelled").increment(cancelled);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * IdempotencyConfig.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.idempotency;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+@ConfigMapping(prefix = "shopbee.order.idempotency")
+public interface IdempotencyConfig {
+
+    /**
+     * How long an idempotency key is remembered, retries after that create a new order.
+     */
+    @WithDefault("24h")
+    Duration retention();
+
+    /**
+     * How often expired idempotency keys are deleted.
+     */
+    @WithDefault("1h")
+    Duration purgeInterval();
+}
@@ -0,0 +1,45 @@
+/*
+ * IdempotencyKeyPurger.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.idempotency;
+
+import com.shopbee.business.order.control.repository.OrderIdempotencyKeyRepository;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Deletes the idempotency keys that are older than the retention.
+ */
+@ApplicationScoped
+public class IdempotencyKeyPurger {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IdempotencyKeyPurger.class);
+
+    private final OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+    private final IdempotencyConfig idempotencyConfig;
+
+    @Inject
+    public IdempotencyKeyPurger(OrderIdempotencyKeyRepository orderIdempotencyKeyRepository, IdempotencyConfig idempotencyConfig) {
+        this.orderIdempotencyKeyRepository = orderIdempotencyKeyRepository;
+        this.idempotencyConfig = idempotencyConfig;
+    }
+
+    @Transactional
+    @Scheduled(every = "${shopbee.order.idempotency.purge-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void purge() {
+        long deleted = orderIdempotencyKeyRepository.deleteCreatedBefore(OffsetDateTime.now().minus(idempotencyConfig.retention()));
+        if (deleted > 0) {
+            LOG.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * OrderIdempotency.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopbee.business.order.control.mapper.OrderMapper;
+import com.shopbee.business.order.control.repository.OrderIdempotencyKeyRepository;
+import com.shopbee.business.order.control.repository.OrderRepository;
+import com.shopbee.business.order.entity.Order;
+import com.shopbee.business.order.entity.OrderIdempotencyKey;
+import com.shopbee.common.exception.ApiServiceException;
+import com.shopbee.order.model.CreateOrderRequest;
+import com.shopbee.order.model.OrderDTO;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CompositeCacheKey;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Makes order creation idempotent per {@code (tenantId, idempotencyKey)}.
+ * <p>
+ * Completed keys are remembered in a bounded cache in front of the key table. Concurrent requests with
+ * the same key on one instance wait for the first one instead of creating an order each, and requests on
+ * different instances are serialised by the unique constraint of the key table.
+ * </p>
+ */
+@ApplicationScoped
+public class OrderIdempotency {
+
+    public static final String CACHE_NAME = "order-idempotency";
+
+    private static final Logger LOG = LoggerFactory.getLogger(OrderIdempotency.class);
+
+    private final Cache cache;
+    private final OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+    private final OrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public OrderIdempotency(@CacheName(CACHE_NAME) Cache cache,
+                            OrderIdempotencyKeyRepository orderIdempotencyKeyRepository,
+                            OrderRepository orderRepository,
+                            OrderMapper orderMapper,
+                            ObjectMapper objectMapper) {
+        this.cache = cache;
+        this.orderIdempotencyKeyRepository = orderIdempotencyKeyRepository;
+        this.orderRepository = orderRepository;
+        this.orderMapper = orderMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Creates the order of a request once per idempotency key and returns the order created first for
+     * every repeat of the request.
+     *
+     * @param tenantId       the tenant id
+     * @param userId         the user id
+     * @param idempotencyKey the idempotency key
+     * @param request        the order request
+     * @param create         creates the order given the request hash, which it must {@link #record} in its transaction
+     * @return the order
+     * @throws ApiServiceException if the key was used for a different request
+     */
+    public OrderDTO execute(String tenantId, String userId, String idempotencyKey, CreateOrderRequest request,
+                            Function<String, OrderDTO> create) {
+        String requestHash = hash(userId, request);
+        IdempotentOrder idempotentOrder = cache.<CompositeCacheKey, IdempotentOrder>get(new CompositeCacheKey(tenantId, idempotencyKey),
+                        key -> findOrCreate(tenantId, idempotencyKey, requestHash, create))
+                .await().indefinitely();
+        if (!idempotentOrder.requestHash().equals(requestHash)) {
+            throw ApiServiceException.conflict("Idempotency key [{}] was used for a different order", idempotencyKey);
+        }
+        return idempotentOrder.order();
+    }
+
+    /**
+     * Finds the order created for an idempotency key, for requests that are only built once it is known
+     * whether they repeat an earlier one.
+     *
+     * @param tenantId       the tenant id
+     * @param userId         the user id
+     * @param idempotencyKey the idempotency key
+     * @return the order created for the key, empty if there is none yet
+     * @throws ApiServiceException if the key was used by a different user
+     */
+    public Optional<OrderDTO> find(String tenantId, String userId, String idempotencyKey) {
+        IdempotentOrder existing = findExisting(tenantId, idempotencyKey);
+        if (existing == null) {
+            return Optional.empty();
+        }
+        if (!existing.order().getUserId().equals(userId)) {
+            throw ApiServiceException.conflict("Idempotency key [{}] was used for a different order", idempotencyKey);
+        }
+        LOG.info("Replaying order [{}] for idempotency key [{}]", existing.order().getId(), idempotencyKey);
+        return Optional.of(existing.order());
+    }
+
+    /**
+     * Records the order created for an idempotency key, in the transaction that creates the order.
+     *
+     * @param tenantId       the tenant id
+     * @param idempotencyKey the idempotency key
+     * @param requestHash    the request hash passed to the create function
+     * @param orderId        the id of the created order
+     */
+    public void record(String tenantId, String idempotencyKey, String requestHash, String orderId) {
+        OrderIdempotencyKey key = new OrderIdempotencyKey();
+        key.setTenantId(tenantId);
+        key.setIdempotencyKey(idempotencyKey);
+        key.setRequestHash(requestHash);
+        key.setOrderId(orderId);
+        orderIdempotencyKeyRepository.persistAndFlush(key);
+    }
+
+    private IdempotentOrder findOrCreate(String tenantId, String idempotencyKey, String requestHash,
+                                         Function<String, OrderDTO> create) {
+        IdempotentOrder existing = findExisting(tenantId, idempotencyKey);
+        if (existing != null) {
+            LOG.info("Replaying order [{}] for idempotency key [{}]", existing.order().getId(), idempotencyKey);
+            return existing;
+        }
+        try {
+            return new IdempotentOrder(requestHash, create.apply(requestHash));
+        } catch (RuntimeException e) {
+            // Another instance may have created the order for the key first, its key row then rejects ours
+            existing = findExisting(tenantId, idempotencyKey);
+            if (existing == null) {
+                throw e;
+            }
+            LOG.info("Order for idempotency key [{}] was created concurrently", idempotencyKey);
+            return existing;
+        }
+    }
+
+    private IdempotentOrder findExisting(String tenantId, String idempotencyKey) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            OrderIdempotencyKey key = orderIdempotencyKeyRepository.findByKey(tenantId, idempotencyKey);
+            if (key == null) {
+                return null;
+            }
+            Order order = orderRepository.findById(tenantId, key.getOrderId());
+            if (order == null) {
+                throw ApiServiceException.notFound("Order [{}] of idempotency key [{}] not found", key.getOrderId(), idempotencyKey);
+            }
+            return new IdempotentOrder(key.getRequestHash(), orderMapper.toOrderDTO(order));
+        });
+    }
+
+    private String hash(String userId, CreateOrderRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(userId.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw ApiServiceException.internalServerError("Could not hash order request: {}", e.getMessage());
+        }
+    }
+
+    private record IdempotentOrder(String requestHash, OrderDTO order) {
+    }
+}
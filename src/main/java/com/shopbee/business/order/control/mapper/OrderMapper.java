@@ -2,15 +2,22 @@ package com.shopbee.business.order.control.mapper;
 
 import com.shopbee.business.order.entity.Order;
 import com.shopbee.business.order.entity.OrderItem;
+import com.shopbee.business.order.entity.OrderSummary;
+import com.shopbee.common.money.Money;
+import com.shopbee.order.model.CreateOrderItemRequest;
 import com.shopbee.order.model.OrderDTO;
 import com.shopbee.order.model.OrderItemDTO;
+import com.shopbee.order.model.OrderSummaryDTO;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 import org.mapstruct.ReportingPolicy;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-@Mapper(componentModel = MappingConstants.ComponentModel.CDI, unmappedTargetPolicy = ReportingPolicy.IGNORE)
+@Mapper(componentModel = MappingConstants.ComponentModel.CDI, unmappedTargetPolicy = ReportingPolicy.IGNORE, uses = Money.class)
 public interface OrderMapper {
 
     OrderDTO toOrderDTO(Order order);
@@ -18,4 +25,18 @@ public interface OrderMapper {
     List<OrderDTO> toOrders(List<Order> orders);
 
     OrderItemDTO toOrderItemDTO(OrderItem orderItem);
+
+    OrderItemDTO toOrderItemDTO(CreateOrderItemRequest createOrderItemRequest);
+
+    @Mapping(target = "totalSpent", expression = "java(Money.toDecimal(orderSummary.getTotalSpent()))")
+    @Mapping(target = "statusCounts", expression = "java(toStatusCounts(orderSummary))")
+    OrderSummaryDTO toOrderSummaryDTO(OrderSummary orderSummary);
+
+    default Map<String, Long> toStatusCounts(OrderSummary orderSummary) {
+        Map<String, Long> statusCounts = new LinkedHashMap<>();
+        for (Order.Status status : Order.Status.values()) {
+            statusCounts.put(status.name(), orderSummary.getStatusCount(status));
+        }
+        return statusCounts;
+    }
 }
@@ -0,0 +1,48 @@
+/*
+ * OrderOutbox.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.outbox;
+
+import com.shopbee.business.order.control.repository.OrderOutboxRepository;
+import com.shopbee.business.order.entity.Order;
+import com.shopbee.business.order.entity.OrderOutboxEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Writes the order status transitions to the outbox, in the transaction that changes the order.
+ */
+@ApplicationScoped
+public class OrderOutbox {
+
+    private final OrderOutboxRepository orderOutboxRepository;
+
+    @Inject
+    public OrderOutbox(OrderOutboxRepository orderOutboxRepository) {
+        this.orderOutboxRepository = orderOutboxRepository;
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void record(Order order, Order.Status fromStatus) {
+        record(order.getTenantId(), order.getId(), order.getUserId(), fromStatus, order.getStatus());
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void record(String tenantId, String orderId, String userId, Order.Status fromStatus, Order.Status toStatus) {
+        OrderOutboxEvent event = new OrderOutboxEvent();
+        event.setTenantId(tenantId);
+        event.setOrderId(orderId);
+        event.setUserId(userId);
+        event.setFromStatus(fromStatus);
+        event.setToStatus(toStatus);
+        event.setNextAttemptAt(OffsetDateTime.now());
+        orderOutboxRepository.persist(event);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * OrderOutboxDispatcher.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.outbox;
+
+import com.shopbee.business.order.control.repository.OrderOutboxRepository;
+import com.shopbee.business.order.entity.OrderOutboxEvent;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Drains the order outbox with a pool of virtual-thread workers. Each worker locks a batch of due events
+ * with {@code FOR UPDATE SKIP LOCKED}, so the workers of all instances share the outbox without handing
+ * the same event to two of them, and keeps going as long as it finds full batches.
+ */
+@ApplicationScoped
+public class OrderOutboxDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OrderOutboxDispatcher.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final Instance<OrderOutboxHandler> handlers;
+    private final OutboxConfig outboxConfig;
+
+    private ExecutorService workers;
+
+    @Inject
+    public OrderOutboxDispatcher(OrderOutboxRepository orderOutboxRepository,
+                                 @Any Instance<OrderOutboxHandler> handlers,
+                                 OutboxConfig outboxConfig) {
+        this.orderOutboxRepository = orderOutboxRepository;
+        this.handlers = handlers;
+        this.outboxConfig = outboxConfig;
+    }
+
+    @PostConstruct
+    void start() {
+        workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("order-outbox-", 0).factory());
+    }
+
+    @PreDestroy
+    void stop() {
+        // Lets the running batches commit before the datasource goes away
+        workers.close();
+    }
+
+    @Scheduled(every = "${shopbee.order.outbox.poll-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void drain() {
+        List<Callable<Integer>> tasks = Collections.nCopies(Math.max(1, outboxConfig.workers()), this::drainBatches);
+        try {
+            workers.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int drainBatches() {
+        int batchSize = Math.max(1, outboxConfig.batchSize());
+        int total = 0;
+        int handled;
+        try {
+            do {
+                handled = QuarkusTransaction.requiringNew().call(() -> handleBatch(batchSize));
+                total += handled;
+            } while (handled == batchSize);
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to drain the order outbox, retrying on the next poll", e);
+        }
+        return total;
+    }
+
+    private int handleBatch(int batchSize) {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<OrderOutboxEvent> events = orderOutboxRepository.lockDue(now, batchSize);
+        for (OrderOutboxEvent event : events) {
+            try {
+                handlers.forEach(handler -> handler.handle(event));
+                orderOutboxRepository.delete(event);
+            } catch (RuntimeException e) {
+                fail(event, e, now);
+            }
+        }
+        return events.size();
+    }
+
+    private void fail(OrderOutboxEvent event, RuntimeException cause, OffsetDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(StringUtils.abbreviate(cause.toString(), MAX_ERROR_LENGTH));
+        if (attempts >= outboxConfig.maxAttempts()) {
+            event.setNextAttemptAt(null);
+            LOG.error("Giving up outbox event [{}] of order [{}] after {} attempts", event.getId(), event.getOrderId(), attempts, cause);
+        } else {
+            event.setNextAttemptAt(now.plus(backoff(attempts)));
+            LOG.warn("Outbox event [{}] of order [{}] failed on attempt {}: {}", event.getId(), event.getOrderId(), attempts, cause.toString());
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        long delay = outboxConfig.initialBackoff().toMillis() << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, outboxConfig.maxBackoff().toMillis()));
+    }
+}
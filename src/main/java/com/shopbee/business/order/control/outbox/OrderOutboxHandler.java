@@ -0,0 +1,22 @@
+/*
+ * OrderOutboxHandler.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.outbox;
+
+import com.shopbee.business.order.entity.OrderOutboxEvent;
+
+/**
+ * Downstream work on an order status transition, such as a notification or a payment initiation. Every
+ * handler bean receives every event, at least once and in the transaction of the worker that locked it, so
+ * handlers must be idempotent. A handler that throws fails the event, which is retried with all handlers.
+ * Handlers writing to the database do so in their own transaction, marking the worker's transaction for
+ * rollback puts the whole batch back into the outbox.
+ */
+public interface OrderOutboxHandler {
+
+    void handle(OrderOutboxEvent event);
+}
@@ -0,0 +1,53 @@
+/*
+ * OutboxConfig.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.outbox;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+@ConfigMapping(prefix = "shopbee.order.outbox")
+public interface OutboxConfig {
+
+    /**
+     * The number of virtual-thread workers draining the outbox of this instance.
+     */
+    @WithDefault("4")
+    int workers();
+
+    /**
+     * The maximum number of events a worker locks and handles per transaction.
+     */
+    @WithDefault("100")
+    int batchSize();
+
+    /**
+     * How often the workers look for due events once the outbox has been drained.
+     */
+    @WithDefault("1s")
+    Duration pollInterval();
+
+    /**
+     * The maximum number of attempts of an event, after that it is kept in the outbox without a next attempt.
+     */
+    @WithDefault("10")
+    int maxAttempts();
+
+    /**
+     * The delay before the first retry of a failed event, doubled on each further attempt.
+     */
+    @WithDefault("1s")
+    Duration initialBackoff();
+
+    /**
+     * The upper bound of the delay between two attempts of an event.
+     */
+    @WithDefault("5m")
+    Duration maxBackoff();
+}
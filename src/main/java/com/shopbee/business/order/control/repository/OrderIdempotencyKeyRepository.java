@@ -0,0 +1,26 @@
+/*
+ * OrderIdempotencyKeyRepository.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.repository;
+
+import com.shopbee.business.order.entity.OrderIdempotencyKey;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.OffsetDateTime;
+
+@ApplicationScoped
+public class OrderIdempotencyKeyRepository implements PanacheRepositoryBase<OrderIdempotencyKey, String> {
+
+    public OrderIdempotencyKey findByKey(String tenantId, String idempotencyKey) {
+        return find("tenantId = ?1 AND idempotencyKey = ?2", tenantId, idempotencyKey).firstResult();
+    }
+
+    public long deleteCreatedBefore(OffsetDateTime cutoff) {
+        return delete("createdAt < ?1", cutoff);
+    }
+}
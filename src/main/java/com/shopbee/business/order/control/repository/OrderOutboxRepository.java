@@ -0,0 +1,33 @@
+/*
+ * OrderOutboxRepository.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.repository;
+
+import com.shopbee.business.order.entity.OrderOutboxEvent;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import org.hibernate.LockOptions;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@ApplicationScoped
+public class OrderOutboxRepository implements PanacheRepositoryBase<OrderOutboxEvent, String> {
+
+    /**
+     * Locks the oldest events that are due, skipping the ones already locked by another worker.
+     */
+    public List<OrderOutboxEvent> lockDue(OffsetDateTime now, int limit) {
+        return find("nextAttemptAt <= ?1", Sort.ascending("nextAttemptAt").and("createdAt"), now)
+                .page(0, limit)
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .withHint("jakarta.persistence.lock.timeout", LockOptions.SKIP_LOCKED)
+                .list();
+    }
+}
@@ -1,19 +1,153 @@
 package com.shopbee.business.order.control.repository;
 
 import com.shopbee.business.order.entity.Order;
+import com.shopbee.common.pagination.PageCursor;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import org.hibernate.LockOptions;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @ApplicationScoped
 public class OrderRepository implements PanacheRepository<Order> {
 
+    private static final String KEYSET_ORDER_BY = " ORDER BY o.createdAt, o.id";
+
+    /**
+     * Loads a page of the user's orders with their items in two queries, the ids of the page first and then
+     * the orders with their items fetched in the same statement.
+     *
+     * @param tenantId the tenant id
+     * @param userId   the user id
+     * @param page     the page index
+     * @param size     the page size
+     * @return the orders of the page in {@code (createdAt, id)} order
+     */
     public List<Order> findByUserId(String tenantId, String userId, int page, int size) {
-        return find("tenantId = ?1 AND userId = ?2", tenantId, userId).page(page, size).list();
+        List<String> ids = getEntityManager().createQuery("SELECT o.id FROM Order o WHERE o.tenantId = :tenantId"
+                        + " AND o.userId = :userId" + KEYSET_ORDER_BY, String.class)
+                .setParameter("tenantId", tenantId)
+                .setParameter("userId", userId)
+                .setFirstResult(page * size)
+                .setMaxResults(size)
+                .getResultList();
+        return findWithItems(tenantId, ids);
+    }
+
+    /**
+     * Loads the page of the user's orders that follows the given cursor with their items, in two queries.
+     *
+     * @param tenantId the tenant id
+     * @param userId   the user id
+     * @param cursor   the position of the last order of the previous page
+     * @param size     the page size
+     * @return the orders of the page in {@code (createdAt, id)} order
+     */
+    public List<Order> findByUserIdAfter(String tenantId, String userId, PageCursor cursor, int size) {
+        List<String> ids = getEntityManager().createQuery("SELECT o.id FROM Order o WHERE o.tenantId = :tenantId"
+                        + " AND o.userId = :userId AND (o.createdAt > :createdAt OR (o.createdAt = :createdAt AND o.id > :id))"
+                        + KEYSET_ORDER_BY, String.class)
+                .setParameter("tenantId", tenantId)
+                .setParameter("userId", userId)
+                .setParameter("createdAt", cursor.createdAt())
+                .setParameter("id", cursor.id())
+                .setMaxResults(size)
+                .getResultList();
+        return findWithItems(tenantId, ids);
+    }
+
+    private List<Order> findWithItems(String tenantId, List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Paging is done on the ids, so the fetch join does not page the joined rows in memory
+        return find("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.tenantId = ?1 AND o.id IN ?2" + KEYSET_ORDER_BY,
+                tenantId, ids).list();
     }
 
     public Order findById(String tenantId, String id) {
         return find("tenantId = ?1 AND id = ?2", tenantId, id).firstResult();
     }
+
+    /**
+     * Reads the status of the given orders with a single query, without loading their items.
+     *
+     * @param tenantId the tenant id
+     * @param ids      the order ids
+     * @return the statuses of the orders that exist
+     */
+    public List<OrderStatusRow> findStatuses(String tenantId, Collection<String> ids) {
+        return find("tenantId = ?1 AND id IN ?2", tenantId, ids).project(OrderStatusRow.class).list();
+    }
+
+    /**
+     * Locks the given orders with {@code FOR UPDATE} and reads their status, so the status stays as read until
+     * the transaction ends. The orders are locked in id order, concurrent calls with overlapping orders wait
+     * for each other instead of deadlocking.
+     *
+     * @param tenantId the tenant id
+     * @param ids      the order ids
+     * @return the statuses of the orders that exist
+     */
+    public List<OrderStatusRow> lockStatuses(String tenantId, Collection<String> ids) {
+        getEntityManager().createNativeQuery("SELECT id FROM shopbee_order WHERE tenant_id = :tenantId AND id IN (:ids) ORDER BY id FOR UPDATE")
+                .setParameter("tenantId", tenantId)
+                .setParameter("ids", ids)
+                .getResultList();
+        return findStatuses(tenantId, ids);
+    }
+
+    /**
+     * Moves the given orders from one status to another with a single UPDATE statement. An order is only
+     * updated when it still has the status it is moved from.
+     *
+     * @param tenantId the tenant id
+     * @param ids      the order ids
+     * @param from     the status the orders are in
+     * @param to       the status to move the orders to
+     * @return the number of orders that were updated
+     */
+    public int updateStatus(String tenantId, Collection<String> ids, Order.Status from, Order.Status to) {
+        return update("status = :to, updatedAt = :now WHERE tenantId = :tenantId AND id IN :ids AND status = :from",
+                Parameters.with("to", to)
+                        .and("now", OffsetDateTime.now())
+                        .and("tenantId", tenantId)
+                        .and("ids", ids)
+                        .and("from", from));
+    }
+
+    /**
+     * Locks the oldest orders of any tenant that are in one of the given statuses since before the cutoff,
+     * skipping the ones already locked by another transaction.
+     *
+     * @param statuses the statuses
+     * @param cutoff   the creation time the orders are older than
+     * @param limit    the maximum number of orders
+     * @return the locked orders, oldest first
+     */
+    public List<Order> lockCreatedBefore(Collection<Order.Status> statuses, OffsetDateTime cutoff, int limit) {
+        return find("status IN ?1 AND createdAt < ?2", Sort.ascending("createdAt"), statuses, cutoff)
+                .page(0, limit)
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .withHint("jakarta.persistence.lock.timeout", LockOptions.SKIP_LOCKED)
+                .list();
+    }
+
+    /**
+     * Loads the items of the given orders with a single query, so that reading them does not query each
+     * order. The orders are in the persistence context already, the fetch join fills their item collections.
+     *
+     * @param orders the orders
+     */
+    public void fetchItems(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        find("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN ?1", orders.stream().map(Order::getId).toList()).list();
+    }
 }
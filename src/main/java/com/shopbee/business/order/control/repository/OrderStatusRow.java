@@ -0,0 +1,16 @@
+/*
+ * OrderStatusRow.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.repository;
+
+import com.shopbee.business.order.entity.Order;
+
+/**
+ * The status of an order, read without its items.
+ */
+public record OrderStatusRow(String id, String userId, Order.Status status) {
+}
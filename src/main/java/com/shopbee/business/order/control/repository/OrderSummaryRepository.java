@@ -0,0 +1,198 @@
+/*
+ * OrderSummaryRepository.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.repository;
+
+import com.shopbee.business.order.entity.Order;
+import com.shopbee.business.order.entity.OrderSummary;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Parameters;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@ApplicationScoped
+public class OrderSummaryRepository implements PanacheRepositoryBase<OrderSummary, String> {
+
+    private static final Map<Order.Status, String> STATUS_COUNTS = new EnumMap<>(Map.of(
+            Order.Status.CREATED, "createdCount",
+            Order.Status.PENDING_PAYMENT, "pendingPaymentCount",
+            Order.Status.PAID, "paidCount",
+            Order.Status.SHIPPED, "shippedCount",
+            Order.Status.DELIVERED, "deliveredCount",
+            Order.Status.CANCELLED, "cancelledCount"));
+
+    private static final String ORDERS_OF_USER = "FROM Order o WHERE o.tenantId = s.tenantId AND o.userId = s.userId AND o.id IN :ids";
+
+    public OrderSummary findByUserId(String tenantId, String userId) {
+        return find("tenantId = ?1 AND userId = ?2", tenantId, userId).firstResult();
+    }
+
+    /**
+     * Adds a new order to the summary of its user with a single UPDATE statement.
+     *
+     * @param order the order, flushed
+     * @return the number of summaries updated, 0 when the user has no summary yet
+     */
+    public int addOrder(Order order) {
+        String count = STATUS_COUNTS.get(order.getStatus());
+        long spent = order.getStatus() == Order.Status.CANCELLED ? 0 : order.getTotalPrice();
+        return update("orderCount = orderCount + 1, totalSpent = totalSpent + :spent, " + count + " = " + count + " + 1,"
+                        + " lastOrderId = :orderId, lastOrderAt = :createdAt, lastOrderStatus = :status, updatedAt = :now"
+                        + " WHERE tenantId = :tenantId AND userId = :userId",
+                Parameters.with("spent", spent)
+                        .and("orderId", order.getId())
+                        .and("createdAt", order.getCreatedAt())
+                        .and("status", order.getStatus())
+                        .and("now", OffsetDateTime.now())
+                        .and("tenantId", order.getTenantId())
+                        .and("userId", order.getUserId()));
+    }
+
+    /**
+     * Moves the given orders from one status count to another in the summaries of their users, with a single
+     * UPDATE statement. Orders leaving or entering the cancelled status are taken out of or added to the spend.
+     *
+     * @param tenantId the tenant id
+     * @param orderIds the ids of orders that moved
+     * @param from     the status the orders were in
+     * @param to       the status the orders are in now
+     * @return the number of summaries updated
+     */
+    public int moveOrders(String tenantId, Collection<String> orderIds, Order.Status from, Order.Status to) {
+        String fromCount = "s." + STATUS_COUNTS.get(from);
+        String toCount = "s." + STATUS_COUNTS.get(to);
+        String moved = "(SELECT count(o) " + ORDERS_OF_USER + ")";
+        String spent = "(SELECT coalesce(sum(o.totalPrice), 0) " + ORDERS_OF_USER + ")";
+        String totalSpent = to == Order.Status.CANCELLED ? "s.totalSpent - " + spent
+                : from == Order.Status.CANCELLED ? "s.totalSpent + " + spent
+                : "s.totalSpent";
+        return getEntityManager().createQuery("UPDATE OrderSummary s SET "
+                        + fromCount + " = " + fromCount + " - " + moved + ", "
+                        + toCount + " = " + toCount + " + " + moved + ", "
+                        + "s.totalSpent = " + totalSpent + ", "
+                        + "s.lastOrderStatus = CASE WHEN s.lastOrderId IN :ids THEN :to ELSE s.lastOrderStatus END, "
+                        + "s.updatedAt = :now "
+                        + "WHERE s.tenantId = :tenantId AND s.userId IN (SELECT o.userId FROM Order o WHERE o.tenantId = :tenantId AND o.id IN :ids)")
+                .setParameter("ids", orderIds)
+                .setParameter("to", to)
+                .setParameter("now", OffsetDateTime.now())
+                .setParameter("tenantId", tenantId)
+                .executeUpdate();
+    }
+
+    /**
+     * Creates an empty summary for a user unless there is one. A concurrent insert of the same summary is
+     * waited for instead of failing on the unique constraint. The conflict has no target, as H2 only takes
+     * this form in its PostgreSQL mode, the id is random so only the user can conflict.
+     *
+     * @param tenantId the tenant id
+     * @param userId   the user id
+     * @return 1 if the summary was created, 0 if it exists
+     */
+    public int insertIfAbsent(String tenantId, String userId) {
+        return getEntityManager().createNativeQuery("INSERT INTO shopbee_order_summary (id, tenant_id, user_id, updated_at,"
+                        + " order_count, total_spent, created_count, pending_payment_count, paid_count, shipped_count, delivered_count,"
+                        + " cancelled_count) VALUES (:id, :tenantId, :userId, :now, 0, 0, 0, 0, 0, 0, 0, 0) ON CONFLICT DO NOTHING")
+                .setParameter("id", UUID.randomUUID().toString())
+                .setParameter("tenantId", tenantId)
+                .setParameter("userId", userId)
+                .setParameter("now", OffsetDateTime.now())
+                .executeUpdate();
+    }
+
+    /**
+     * Overwrites the counts, spend and last order of an existing summary with a single UPDATE statement.
+     *
+     * @param summary the summary values, matched by tenant id and user id
+     * @return the number of summaries updated
+     */
+    public int replace(OrderSummary summary) {
+        Parameters parameters = Parameters.with("orderCount", summary.getOrderCount())
+                .and("totalSpent", summary.getTotalSpent())
+                .and("lastOrderId", summary.getLastOrderId())
+                .and("lastOrderAt", summary.getLastOrderAt())
+                .and("lastOrderStatus", summary.getLastOrderStatus())
+                .and("now", OffsetDateTime.now())
+                .and("tenantId", summary.getTenantId())
+                .and("userId", summary.getUserId());
+        StringBuilder counts = new StringBuilder();
+        STATUS_COUNTS.forEach((status, count) -> {
+            counts.append(count).append(" = :").append(count).append(", ");
+            parameters.and(count, summary.getStatusCount(status));
+        });
+        return update("orderCount = :orderCount, totalSpent = :totalSpent, " + counts
+                + "lastOrderId = :lastOrderId, lastOrderAt = :lastOrderAt, lastOrderStatus = :lastOrderStatus, updatedAt = :now"
+                + " WHERE tenantId = :tenantId AND userId = :userId", parameters);
+    }
+
+    public long deleteByUserIds(String tenantId, Collection<String> userIds) {
+        return delete("tenantId = ?1 AND userId IN ?2", tenantId, userIds);
+    }
+
+    /**
+     * Counts the orders of the given users per status from the orders themselves.
+     *
+     * @param tenantId the tenant id
+     * @param userIds  the user ids
+     * @return one row per user and status
+     */
+    public List<StatusTotals> countByStatus(String tenantId, Collection<String> userIds) {
+        return getEntityManager().createQuery("SELECT o.userId, o.status, count(o), coalesce(sum(o.totalPrice), 0) FROM Order o"
+                        + " WHERE o.tenantId = :tenantId AND o.userId IN :userIds GROUP BY o.userId, o.status", Object[].class)
+                .setParameter("tenantId", tenantId)
+                .setParameter("userIds", userIds)
+                .getResultStream()
+                .map(row -> new StatusTotals((String) row[0], (Order.Status) row[1], ((Number) row[2]).longValue(), ((Number) row[3]).longValue()))
+                .toList();
+    }
+
+    /**
+     * Finds the latest order of each of the given users.
+     *
+     * @param tenantId the tenant id
+     * @param userIds  the user ids
+     * @return the latest orders, without their items
+     */
+    public List<Order> findLastOrders(String tenantId, Collection<String> userIds) {
+        return getEntityManager().createQuery("SELECT o FROM Order o WHERE o.tenantId = :tenantId AND o.userId IN :userIds"
+                        + " AND o.createdAt = (SELECT max(l.createdAt) FROM Order l WHERE l.tenantId = o.tenantId AND l.userId = o.userId)", Order.class)
+                .setParameter("tenantId", tenantId)
+                .setParameter("userIds", userIds)
+                .getResultList();
+    }
+
+    /**
+     * Lists the tenants that have orders.
+     */
+    public List<String> findOrderTenants() {
+        return getEntityManager().createQuery("SELECT DISTINCT o.tenantId FROM Order o", String.class).getResultList();
+    }
+
+    /**
+     * Lists the users of a tenant that have orders, in id order, after the given user id.
+     */
+    public List<String> findOrderUsersAfter(String tenantId, String afterUserId, int limit) {
+        return getEntityManager().createQuery("SELECT DISTINCT o.userId FROM Order o WHERE o.tenantId = :tenantId"
+                        + " AND o.userId > :after ORDER BY o.userId", String.class)
+                .setParameter("tenantId", tenantId)
+                .setParameter("after", afterUserId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * The number and total price of a user's orders in one status.
+     */
+    public record StatusTotals(String userId, Order.Status status, long count, long totalPrice) {
+    }
+}
@@ -1,19 +1,36 @@
 package com.shopbee.business.order.control.service;
 
+import com.shopbee.common.pagination.CursorPage;
+import com.shopbee.order.model.BulkOrderStatusRequest;
+import com.shopbee.order.model.BulkOrderStatusResponse;
 import com.shopbee.order.model.CreateOrderRequest;
 import com.shopbee.order.model.OrderDTO;
-
-import java.util.List;
+import com.shopbee.order.model.OrderSummaryDTO;
 
 public interface OrderService {
 
-    OrderDTO createOrder(String tenantId, String userId, CreateOrderRequest createOrderRequest);
+    OrderDTO createOrder(String tenantId, String userId, String idempotencyKey, CreateOrderRequest createOrderRequest);
+
+    /**
+     * Orders the items of a cart and takes the ordered quantities out of the cart. A repeat with the same
+     * idempotency key replays the order while the cart still holds the same items.
+     *
+     * @param tenantId       the tenant id
+     * @param userId         the user id
+     * @param idempotencyKey the idempotency key, may be blank
+     * @return the order
+     */
+    OrderDTO checkout(String tenantId, String userId, String idempotencyKey);
 
-    List<OrderDTO> getOrders(String tenantId, String userId, Integer offset, Integer limit);
+    CursorPage<OrderDTO> getOrders(String tenantId, String userId, Integer offset, Integer limit, String cursor);
+
+    OrderSummaryDTO getOrderSummary(String tenantId, String userId);
 
     OrderDTO getOrderById(String tenantId, String userId, String orderId);
 
     OrderDTO cancelOrder(String tenantId, String userId, String orderId);
 
     void updateOrderStatus(String tenantId, String orderId, String status);
+
+    BulkOrderStatusResponse updateOrderStatuses(String tenantId, BulkOrderStatusRequest bulkOrderStatusRequest);
 }
@@ -1,70 +1,172 @@
 package com.shopbee.business.order.control.service.impl;
 
+import com.shopbee.business.cart.control.service.CartService;
+import com.shopbee.common.bulkhead.TenantBulkhead;
 import com.shopbee.common.exception.ApiServiceException;
+import com.shopbee.common.money.Money;
+import com.shopbee.common.pagination.CursorPage;
+import com.shopbee.common.pagination.PageCursor;
+import com.shopbee.business.order.control.idempotency.OrderIdempotency;
 import com.shopbee.business.order.control.mapper.OrderMapper;
+import com.shopbee.business.order.control.outbox.OrderOutbox;
 import com.shopbee.business.order.control.repository.OrderRepository;
+import com.shopbee.business.order.control.repository.OrderStatusRow;
 import com.shopbee.business.order.control.service.OrderService;
+import com.shopbee.business.order.control.status.OrderStatusTransitions;
+import com.shopbee.business.order.control.summary.OrderSummaries;
+import com.shopbee.business.order.control.status.TransitionOutcome;
 import com.shopbee.business.order.entity.Order;
 import com.shopbee.business.order.entity.OrderItem;
+import com.shopbee.order.model.BulkOrderStatusRequest;
+import com.shopbee.order.model.BulkOrderStatusResponse;
+import com.shopbee.order.model.CreateOrderItemRequest;
 import com.shopbee.order.model.CreateOrderRequest;
 import com.shopbee.order.model.OrderDTO;
+import com.shopbee.order.model.OrderItemDTO;
+import com.shopbee.order.model.OrderSummaryDTO;
+import com.shopbee.order.model.OrderStatusTransition;
+import com.shopbee.order.model.OrderStatusTransitionResult;
 import com.shopbee.business.product.control.service.ProductService;
-import com.shopbee.product.model.ProductDTO;
+import com.shopbee.business.product.control.stock.StockRetryExecutor;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.apache.commons.collections4.ListUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
+@TenantBulkhead
 public class OrderServiceImpl implements OrderService {
 
     private static final Logger LOG = LoggerFactory.getLogger(OrderServiceImpl.class);
     private static final int DEFAULT_PAGE_SIZE = 20;
     private static final int DEFAULT_PAGE_INDEX = 0;
+    private static final int STATUS_UPDATE_CHUNK_SIZE = 1000;
 
     private final OrderRepository orderRepository;
     private final ProductService productService;
     private final OrderMapper orderMapper;
+    private final OrderIdempotency orderIdempotency;
+    private final OrderOutbox orderOutbox;
+    private final OrderSummaries orderSummaries;
+    private final CartService cartService;
+    private final StockRetryExecutor stockRetryExecutor;
 
     @Inject
-    public OrderServiceImpl(OrderRepository orderRepository, ProductService productService, OrderMapper orderMapper) {
+    public OrderServiceImpl(OrderRepository orderRepository,
+                            ProductService productService,
+                            OrderMapper orderMapper,
+                            OrderIdempotency orderIdempotency,
+                            OrderOutbox orderOutbox,
+                            OrderSummaries orderSummaries,
+                            CartService cartService,
+                            StockRetryExecutor stockRetryExecutor) {
         this.orderRepository = orderRepository;
         this.productService = productService;
         this.orderMapper = orderMapper;
+        this.orderIdempotency = orderIdempotency;
+        this.orderOutbox = orderOutbox;
+        this.orderSummaries = orderSummaries;
+        this.cartService = cartService;
+        this.stockRetryExecutor = stockRetryExecutor;
     }
 
     @Override
-    @Transactional
-    public OrderDTO createOrder(String tenantId, String userId, CreateOrderRequest createOrderRequest) {
+    public OrderDTO createOrder(String tenantId, String userId, String idempotencyKey, CreateOrderRequest createOrderRequest) {
+        return createOrder(tenantId, userId, idempotencyKey, createOrderRequest, new AtomicBoolean());
+    }
+
+    @Override
+    public OrderDTO checkout(String tenantId, String userId, String idempotencyKey) {
+        if (StringUtils.isNotBlank(idempotencyKey)) {
+            // A retry returns the order of the first checkout, whatever was added to the cart since stays there
+            Optional<OrderDTO> order = orderIdempotency.find(tenantId, userId, idempotencyKey);
+            if (order.isPresent()) {
+                return order.get();
+            }
+        }
+        // The request, and so the hash recorded with the key, is built from this snapshot of the cart
+        Map<String, Integer> lines = cartService.getLines(tenantId, userId);
+        if (lines.isEmpty()) {
+            throw ApiServiceException.badRequest("The cart is empty");
+        }
+        List<CreateOrderItemRequest> items = lines.entrySet().stream()
+                .map(line -> new CreateOrderItemRequest().productId(line.getKey()).quantity(line.getValue()))
+                .toList();
+        AtomicBoolean placed = new AtomicBoolean();
+        OrderDTO order = createOrder(tenantId, userId, idempotencyKey, new CreateOrderRequest().items(items), placed);
+        // A concurrent checkout with the same key that placed the order already took its lines out
+        if (placed.get()) {
+            cartService.removeOrdered(tenantId, userId, lines);
+        }
+        return order;
+    }
+
+    /**
+     * Places the order of a request once per idempotency key.
+     *
+     * @param placed set when this call placed the order, left unset when it returns an order placed before
+     */
+    private OrderDTO createOrder(String tenantId, String userId, String idempotencyKey, CreateOrderRequest createOrderRequest,
+                                 AtomicBoolean placed) {
+        if (StringUtils.isBlank(idempotencyKey)) {
+            OrderDTO order = placeOrder(tenantId, userId, null, null, createOrderRequest);
+            placed.set(true);
+            return order;
+        }
+        return orderIdempotency.execute(tenantId, userId, idempotencyKey, createOrderRequest, requestHash -> {
+            OrderDTO order = placeOrder(tenantId, userId, idempotencyKey, requestHash, createOrderRequest);
+            placed.set(true);
+            return order;
+        });
+    }
+
+    /**
+     * Places an order in a transaction of its own, retried as a whole when the stock changed concurrently.
+     */
+    private OrderDTO placeOrder(String tenantId, String userId, String idempotencyKey, String requestHash,
+                                CreateOrderRequest createOrderRequest) {
+        return stockRetryExecutor.execute("reserve", () -> QuarkusTransaction.requiringNew()
+                .call(() -> persistOrder(tenantId, userId, idempotencyKey, requestHash, createOrderRequest)));
+    }
+
+    private OrderDTO persistOrder(String tenantId, String userId, String idempotencyKey, String requestHash,
+                                  CreateOrderRequest createOrderRequest) {
         LOG.info("Creating new order for user [{}]", userId);
 
-        // 1. Fetch product details and calculate total price
+        // 1. Reserve stock for all products at once in the order transaction, so it is only taken if the order
+        // commits. The products are read once, for their stock and their current price.
+        List<OrderItemDTO> reservedItems = createOrderRequest.getItems().stream().map(orderMapper::toOrderItemDTO).toList();
+        Map<String, Long> prices = productService.reserveStock(tenantId, reservedItems);
+
+        // 2. Price the items and calculate the total price
         List<OrderItem> orderItems = createOrderRequest.getItems().stream()
                 .map(itemRequest -> {
-                    ProductDTO product = productService.getProductById(tenantId, itemRequest.getProductId());
-                    if (product.getStockQuantity() < itemRequest.getQuantity()) {
-                        throw ApiServiceException.badRequest("Not enough stock for product [{}]. Requested: {}, Available: {}",
-                                product.getId(), itemRequest.getQuantity(), product.getStockQuantity());
-                    }
                     OrderItem orderItem = new OrderItem();
                     orderItem.setTenantId(tenantId);
-                    orderItem.setProductId(product.getId());
+                    orderItem.setProductId(itemRequest.getProductId());
                     orderItem.setQuantity(itemRequest.getQuantity());
-                    orderItem.setPrice(product.getPrice());
+                    orderItem.setPrice(prices.get(itemRequest.getProductId()));
                     return orderItem;
                 }).collect(Collectors.toList());
 
-        double totalPrice = orderItems.stream()
-                .mapToDouble(item -> item.getPrice() * item.getQuantity())
-                .sum();
-
-        // 2. Reserve stock
-        productService.reserveStock(tenantId, orderItems.stream().map(orderMapper::toOrderItemDTO).collect(Collectors.toList()));
+        long totalPrice = 0;
+        for (OrderItem orderItem : orderItems) {
+            totalPrice = Money.plus(totalPrice, Money.times(orderItem.getPrice(), orderItem.getQuantity()));
+        }
 
         // 3. Create and save the order
         Order order = new Order();
@@ -75,17 +177,31 @@ public class OrderServiceImpl implements OrderService {
         order.setStatus(Order.Status.CREATED);
         orderItems.forEach(item -> item.setOrder(order));
 
-        orderRepository.persist(order);
+        orderRepository.persistAndFlush(order);
+        orderOutbox.record(order, null);
+        orderSummaries.orderCreated(order);
+        if (idempotencyKey != null) {
+            orderIdempotency.record(tenantId, idempotencyKey, requestHash, order.getId());
+        }
 
         return orderMapper.toOrderDTO(order);
     }
 
     @Override
-    public List<OrderDTO> getOrders(String tenantId, String userId, Integer offset, Integer limit) {
+    public CursorPage<OrderDTO> getOrders(String tenantId, String userId, Integer offset, Integer limit, String cursor) {
         int page = Optional.ofNullable(offset).orElse(DEFAULT_PAGE_INDEX);
         int size = Optional.ofNullable(limit).orElse(DEFAULT_PAGE_SIZE);
-        List<Order> orders = orderRepository.findByUserId(tenantId, userId, page, size);
-        return orderMapper.toOrders(orders);
+        PageCursor after = PageCursor.decode(cursor);
+        List<Order> orders = after == null
+                ? orderRepository.findByUserId(tenantId, userId, page, size)
+                : orderRepository.findByUserIdAfter(tenantId, userId, after, size);
+        String nextCursor = PageCursor.next(orders, size, order -> new PageCursor(order.getCreatedAt(), order.getId()));
+        return new CursorPage<>(orderMapper.toOrders(orders), nextCursor);
+    }
+
+    @Override
+    public OrderSummaryDTO getOrderSummary(String tenantId, String userId) {
+        return orderMapper.toOrderSummaryDTO(orderSummaries.get(tenantId, userId));
     }
 
     @Override
@@ -99,12 +215,20 @@ public class OrderServiceImpl implements OrderService {
     public OrderDTO cancelOrder(String tenantId, String userId, String orderId) {
         Order order = findOrderByIdAndUserId(tenantId, userId, orderId);
 
-        if (order.getStatus() == Order.Status.CREATED || order.getStatus() == Order.Status.PENDING_PAYMENT) {
-            order.setStatus(Order.Status.CANCELLED);
-            productService.releaseStock(tenantId, order.getItems().stream().map(orderMapper::toOrderItemDTO).collect(Collectors.toList()));
-        } else {
-            throw ApiServiceException.badRequest("Order [{}] cannot be cancelled in its current state: {}", orderId, order.getStatus());
+        Order.Status fromStatus = order.getStatus();
+        if (fromStatus != Order.Status.CREATED && fromStatus != Order.Status.PENDING_PAYMENT) {
+            throw ApiServiceException.badRequest("Order [{}] cannot be cancelled in its current state: {}", orderId, fromStatus);
         }
+        // Only the update that moves the order out of the status read above cancels it, so a concurrent
+        // cancel or expiry sweep does not give the stock back twice
+        if (orderRepository.updateStatus(tenantId, List.of(orderId), fromStatus, Order.Status.CANCELLED) != 1) {
+            throw ApiServiceException.conflict("Order [{}] was changed concurrently, it is no longer {}", orderId, fromStatus);
+        }
+        orderRepository.getEntityManager().refresh(order);
+        orderOutbox.record(order, fromStatus);
+        orderSummaries.statusChanged(order, fromStatus);
+        // Journaled with the cancellation, so the stock is given back exactly when it commits
+        productService.releaseStockInTransaction(tenantId, order.getItems().stream().map(orderMapper::toOrderItemDTO).toList());
 
         return orderMapper.toOrderDTO(order);
     }
@@ -118,7 +242,108 @@ public class OrderServiceImpl implements OrderService {
             throw ApiServiceException.notFound("Order [{}] not found", orderId);
         }
         LOG.info("Updating status of order [{}] to [{}]", orderId, status);
-        order.setStatus(Order.Status.valueOf(status));
+        Order.Status fromStatus = order.getStatus();
+        Order.Status toStatus = OrderStatusTransitions.parse(status);
+        if (toStatus == null) {
+            throw ApiServiceException.badRequest("Unknown order status [{}]", status);
+        }
+        // Cancellations give stock back, which only cancelOrder does
+        if (toStatus == Order.Status.CANCELLED) {
+            throw ApiServiceException.badRequest("Order [{}] is cancelled through the cancel endpoint", orderId);
+        }
+        if (!OrderStatusTransitions.isAllowed(fromStatus, toStatus)) {
+            throw ApiServiceException.badRequest("Order [{}] cannot move from {} to {}", orderId, fromStatus, toStatus);
+        }
+        // Only moves the order out of the status read above, so a concurrent cancel or expiry sweep is not overwritten
+        if (orderRepository.updateStatus(tenantId, List.of(orderId), fromStatus, toStatus) != 1) {
+            throw ApiServiceException.conflict("Order [{}] was changed concurrently, it is no longer {}", orderId, fromStatus);
+        }
+        orderRepository.getEntityManager().refresh(order);
+        orderOutbox.record(order, fromStatus);
+        orderSummaries.statusChanged(order, fromStatus);
+    }
+
+    @Override
+    @Transactional
+    public BulkOrderStatusResponse updateOrderStatuses(String tenantId, BulkOrderStatusRequest bulkOrderStatusRequest) {
+        Map<String, OrderStatusTransitionResult> results = new LinkedHashMap<>();
+        Map<String, Order.Status> targets = new LinkedHashMap<>();
+        for (OrderStatusTransition transition : bulkOrderStatusRequest.getTransitions()) {
+            OrderStatusTransitionResult result = new OrderStatusTransitionResult()
+                    .orderId(transition.getOrderId())
+                    .toStatus(transition.getStatus());
+            if (results.put(transition.getOrderId(), result) != null) {
+                throw ApiServiceException.badRequest("Order [{}] is transitioned more than once", transition.getOrderId());
+            }
+            Order.Status toStatus = OrderStatusTransitions.parse(transition.getStatus());
+            if (toStatus == null) {
+                result.outcome(TransitionOutcome.UNKNOWN_STATUS.name());
+            } else {
+                targets.put(transition.getOrderId(), toStatus);
+            }
+        }
+
+        LOG.info("Transitioning the status of {} orders", results.size());
+        long updated = 0;
+        for (List<String> chunk : ListUtils.partition(new ArrayList<>(targets.keySet()), STATUS_UPDATE_CHUNK_SIZE)) {
+            updated += transitionStatuses(tenantId, chunk, targets, results);
+        }
+        return new BulkOrderStatusResponse().updated(updated).results(new ArrayList<>(results.values()));
+    }
+
+    /**
+     * Applies the allowed transitions of the given orders with one UPDATE per pair of statuses.
+     */
+    private long transitionStatuses(String tenantId, List<String> orderIds, Map<String, Order.Status> targets,
+                                    Map<String, OrderStatusTransitionResult> results) {
+        // Locked, so that every order the UPDATEs below match is one this call moved, and no one else did
+        Map<String, OrderStatusRow> rows = orderRepository.lockStatuses(tenantId, orderIds).stream()
+                .collect(Collectors.toMap(OrderStatusRow::id, Function.identity()));
+
+        Map<Order.Status, Map<Order.Status, List<OrderStatusRow>>> groups = new EnumMap<>(Order.Status.class);
+        for (String orderId : orderIds) {
+            OrderStatusTransitionResult result = results.get(orderId);
+            OrderStatusRow row = rows.get(orderId);
+            if (row == null) {
+                result.outcome(TransitionOutcome.NOT_FOUND.name());
+                continue;
+            }
+            Order.Status toStatus = targets.get(orderId);
+            result.fromStatus(row.status().name());
+            // Cancellations give stock back, which only the cancel endpoint does
+            if (toStatus == Order.Status.CANCELLED || !OrderStatusTransitions.isAllowed(row.status(), toStatus)) {
+                result.outcome(TransitionOutcome.NOT_ALLOWED.name());
+                continue;
+            }
+            groups.computeIfAbsent(row.status(), status -> new EnumMap<>(Order.Status.class))
+                    .computeIfAbsent(toStatus, status -> new ArrayList<>())
+                    .add(row);
+        }
+
+        long updated = 0;
+        for (Map.Entry<Order.Status, Map<Order.Status, List<OrderStatusRow>>> from : groups.entrySet()) {
+            for (Map.Entry<Order.Status, List<OrderStatusRow>> to : from.getValue().entrySet()) {
+                updated += updateStatus(tenantId, from.getKey(), to.getKey(), to.getValue(), results);
+            }
+        }
+        return updated;
+    }
+
+    private int updateStatus(String tenantId, Order.Status fromStatus, Order.Status toStatus, List<OrderStatusRow> orders,
+                             Map<String, OrderStatusTransitionResult> results) {
+        List<String> orderIds = orders.stream().map(OrderStatusRow::id).toList();
+        int count = orderRepository.updateStatus(tenantId, orderIds, fromStatus, toStatus);
+        if (count != orderIds.size()) {
+            // Cannot happen while the orders are locked, rather than guessing which ones moved nothing is applied
+            throw ApiServiceException.conflict("{} of {} orders changed their status from {} concurrently",
+                    orderIds.size() - count, orderIds.size(), fromStatus);
+        }
+        for (OrderStatusRow order : orders) {
+            results.get(order.id()).outcome(TransitionOutcome.UPDATED.name());
+            orderOutbox.record(tenantId, order.id(), order.userId(), fromStatus, toStatus);
+        }
+        orderSummaries.statusesChanged(tenantId, orderIds, fromStatus, toStatus);
+        return count;
     }
 
     private Order findOrderByIdAndUserId(String tenantId, String userId, String orderId) {
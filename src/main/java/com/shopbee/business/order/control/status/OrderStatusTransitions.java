@@ -0,0 +1,55 @@
+/*
+ * OrderStatusTransitions.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.status;
+
+import com.shopbee.business.order.entity.Order;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The order lifecycle as a table of allowed status transitions, computed once.
+ */
+public final class OrderStatusTransitions {
+
+    private static final Map<String, Order.Status> STATUSES = Arrays.stream(Order.Status.values())
+            .collect(Collectors.toUnmodifiableMap(Order.Status::name, Function.identity()));
+
+    private static final Map<Order.Status, Set<Order.Status>> ALLOWED = new EnumMap<>(Order.Status.class);
+
+    static {
+        ALLOWED.put(Order.Status.CREATED, EnumSet.of(Order.Status.PENDING_PAYMENT, Order.Status.CANCELLED));
+        ALLOWED.put(Order.Status.PENDING_PAYMENT, EnumSet.of(Order.Status.PAID, Order.Status.CANCELLED));
+        ALLOWED.put(Order.Status.PAID, EnumSet.of(Order.Status.SHIPPED));
+        ALLOWED.put(Order.Status.SHIPPED, EnumSet.of(Order.Status.DELIVERED));
+        ALLOWED.put(Order.Status.DELIVERED, EnumSet.noneOf(Order.Status.class));
+        ALLOWED.put(Order.Status.CANCELLED, EnumSet.noneOf(Order.Status.class));
+    }
+
+    private OrderStatusTransitions() {
+    }
+
+    /**
+     * Looks up a status by its name.
+     *
+     * @param name the status name
+     * @return the status, null if there is no status with that name
+     */
+    public static Order.Status parse(String name) {
+        return name == null ? null : STATUSES.get(name);
+    }
+
+    public static boolean isAllowed(Order.Status from, Order.Status to) {
+        return ALLOWED.get(from).contains(to);
+    }
+}
@@ -0,0 +1,15 @@
+/*
+ * TransitionOutcome.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.status;
+
+/**
+ * The outcome of a requested order status transition.
+ */
+public enum TransitionOutcome {
+    UPDATED, NOT_FOUND, UNKNOWN_STATUS, NOT_ALLOWED
+}
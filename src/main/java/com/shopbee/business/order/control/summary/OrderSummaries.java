@@ -0,0 +1,148 @@
+/*
+ * OrderSummaries.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.summary;
+
+import com.shopbee.business.order.control.repository.OrderSummaryRepository;
+import com.shopbee.business.order.entity.Order;
+import com.shopbee.business.order.entity.OrderSummary;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the per-user order summaries in step with the orders, in the transaction that changes the orders.
+ * A summary row is created when the first order of a user is placed, or changed if the user has orders from
+ * before summaries were kept. Reads never write, a user without a row gets a summary computed from their
+ * orders, which is empty for a user without orders. The row is inserted before the orders are counted, so a
+ * concurrent transaction of the same user either waits for it and then applies its own change on top, or
+ * committed its order before the count.
+ */
+@ApplicationScoped
+public class OrderSummaries {
+
+    private final OrderSummaryRepository orderSummaryRepository;
+
+    @Inject
+    public OrderSummaries(OrderSummaryRepository orderSummaryRepository) {
+        this.orderSummaryRepository = orderSummaryRepository;
+    }
+
+    /**
+     * Returns the summary of a user without writing it.
+     *
+     * @param tenantId the tenant id
+     * @param userId   the user id
+     * @return the stored summary, or one computed from the orders of the user if there is none
+     */
+    public OrderSummary get(String tenantId, String userId) {
+        OrderSummary summary = orderSummaryRepository.findByUserId(tenantId, userId);
+        if (summary != null) {
+            return summary;
+        }
+        return compute(tenantId, List.of(userId)).getOrDefault(userId, newSummary(tenantId, userId));
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void orderCreated(Order order) {
+        if (orderSummaryRepository.addOrder(order) == 0 && !createFromOrders(order.getTenantId(), order.getUserId())) {
+            // A concurrent transaction created the summary without this uncommitted order
+            orderSummaryRepository.addOrder(order);
+        }
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void statusChanged(Order order, Order.Status fromStatus) {
+        List<String> orderIds = List.of(order.getId());
+        if (orderSummaryRepository.moveOrders(order.getTenantId(), orderIds, fromStatus, order.getStatus()) == 0
+                && !createFromOrders(order.getTenantId(), order.getUserId())) {
+            // A concurrent transaction created the summary with this order still in its previous status
+            orderSummaryRepository.moveOrders(order.getTenantId(), orderIds, fromStatus, order.getStatus());
+        }
+    }
+
+    /**
+     * Moves orders of many users at once. Users without a summary are skipped, theirs is computed on first use.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void statusesChanged(String tenantId, Collection<String> orderIds, Order.Status fromStatus, Order.Status toStatus) {
+        orderSummaryRepository.moveOrders(tenantId, orderIds, fromStatus, toStatus);
+    }
+
+    /**
+     * Overwrites the summaries of the given users with ones computed from their orders, creating the missing
+     * ones. The summaries of users without orders are removed.
+     *
+     * @param tenantId the tenant id
+     * @param userIds  the user ids
+     * @return the computed summaries of the users that have orders
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public List<OrderSummary> rebuild(String tenantId, Collection<String> userIds) {
+        Map<String, OrderSummary> summaries = compute(tenantId, userIds);
+        List<String> withoutOrders = userIds.stream().filter(userId -> !summaries.containsKey(userId)).toList();
+        if (!withoutOrders.isEmpty()) {
+            orderSummaryRepository.deleteByUserIds(tenantId, withoutOrders);
+        }
+        for (OrderSummary summary : summaries.values()) {
+            orderSummaryRepository.insertIfAbsent(tenantId, summary.getUserId());
+            orderSummaryRepository.replace(summary);
+        }
+        return List.copyOf(summaries.values());
+    }
+
+    /**
+     * Computes the summaries of the given users from their orders.
+     *
+     * @return the summaries by user id, of the users that have orders
+     */
+    private Map<String, OrderSummary> compute(String tenantId, Collection<String> userIds) {
+        Map<String, OrderSummary> summaries = new LinkedHashMap<>();
+        for (OrderSummaryRepository.StatusTotals totals : orderSummaryRepository.countByStatus(tenantId, userIds)) {
+            OrderSummary summary = summaries.computeIfAbsent(totals.userId(), userId -> newSummary(tenantId, userId));
+            summary.setOrderCount(summary.getOrderCount() + totals.count());
+            summary.setStatusCount(totals.status(), totals.count());
+            if (totals.status() != Order.Status.CANCELLED) {
+                summary.setTotalSpent(summary.getTotalSpent() + totals.totalPrice());
+            }
+        }
+        if (!summaries.isEmpty()) {
+            for (Order lastOrder : orderSummaryRepository.findLastOrders(tenantId, summaries.keySet())) {
+                OrderSummary summary = summaries.get(lastOrder.getUserId());
+                summary.setLastOrderId(lastOrder.getId());
+                summary.setLastOrderAt(lastOrder.getCreatedAt());
+                summary.setLastOrderStatus(lastOrder.getStatus());
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Creates the summary of a user from their orders unless it exists.
+     *
+     * @return true if this call created the summary, counting the orders visible to its transaction
+     */
+    private boolean createFromOrders(String tenantId, String userId) {
+        if (orderSummaryRepository.insertIfAbsent(tenantId, userId) == 0) {
+            return false;
+        }
+        rebuild(tenantId, List.of(userId));
+        return true;
+    }
+
+    private static OrderSummary newSummary(String tenantId, String userId) {
+        OrderSummary summary = new OrderSummary();
+        summary.setTenantId(tenantId);
+        summary.setUserId(userId);
+        return summary;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * OrderSummaryRebuilder.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.summary;
+
+import com.shopbee.business.order.control.repository.OrderSummaryRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Recomputes every order summary from the orders, a batch of users per transaction. Orders changed while a
+ * batch is recomputed are counted once the batch commits, so it is best run when the order traffic is low.
+ */
+@ApplicationScoped
+public class OrderSummaryRebuilder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OrderSummaryRebuilder.class);
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderSummaries orderSummaries;
+    private final SummaryConfig summaryConfig;
+
+    @Inject
+    public OrderSummaryRebuilder(OrderSummaryRepository orderSummaryRepository, OrderSummaries orderSummaries, SummaryConfig summaryConfig) {
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.orderSummaries = orderSummaries;
+        this.summaryConfig = summaryConfig;
+    }
+
+    @Scheduled(every = "${shopbee.order.summary.rebuild-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void rebuild() {
+        long rebuilt = rebuildAll();
+        LOG.info("Rebuilt the order summaries of {} users", rebuilt);
+    }
+
+    public long rebuildAll() {
+        int batchSize = Math.max(1, summaryConfig.rebuildBatchSize());
+        long rebuilt = 0;
+        for (String tenantId : QuarkusTransaction.requiringNew().call(orderSummaryRepository::findOrderTenants)) {
+            String afterUserId = "";
+            List<String> userIds;
+            do {
+                String after = afterUserId;
+                userIds = QuarkusTransaction.requiringNew().call(() -> rebuildBatch(tenantId, after, batchSize));
+                rebuilt += userIds.size();
+                if (!userIds.isEmpty()) {
+                    afterUserId = userIds.getLast();
+                }
+            } while (userIds.size() == batchSize);
+        }
+        return rebuilt;
+    }
+
+    private List<String> rebuildBatch(String tenantId, String afterUserId, int batchSize) {
+        List<String> userIds = orderSummaryRepository.findOrderUsersAfter(tenantId, afterUserId, batchSize);
+        if (!userIds.isEmpty()) {
+            orderSummaries.rebuild(tenantId, userIds);
+        }
+        return userIds;
+    }
+}
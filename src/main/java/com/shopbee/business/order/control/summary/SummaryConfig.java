@@ -0,0 +1,28 @@
+/*
+ * SummaryConfig.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.control.summary;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+@ConfigMapping(prefix = "shopbee.order.summary")
+public interface SummaryConfig {
+
+    /**
+     * How often every order summary is recomputed from the orders, {@code off} as the summaries are maintained
+     * along with the orders. Only needed after the orders were changed outside of the service.
+     */
+    @WithDefault("off")
+    String rebuildInterval();
+
+    /**
+     * The maximum number of users whose summaries are recomputed per transaction.
+     */
+    @WithDefault("500")
+    int rebuildBatchSize();
+}
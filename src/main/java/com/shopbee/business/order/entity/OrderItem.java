@@ -29,8 +29,9 @@ public class OrderItem extends AbstractEntity {
     @Column(nullable = false)
     private Integer quantity;
 
+    // In minor units, see Money
     @Column(nullable = false)
-    private Float price;
+    private Long price;
 
     public String getId() {
         return id;
@@ -64,11 +65,11 @@ public class OrderItem extends AbstractEntity {
         this.quantity = quantity;
     }
 
-    public Float getPrice() {
+    public Long getPrice() {
         return price;
     }
 
-    public void setPrice(Float price) {
+    public void setPrice(Long price) {
         this.price = price;
     }
 }
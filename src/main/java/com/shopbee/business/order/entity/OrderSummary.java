@@ -0,0 +1,163 @@
+/*
+ * OrderSummary.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.order.entity;
+
+import com.shopbee.business.user.entity.AbstractEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.OffsetDateTime;
+
+/**
+ * The order history of a user in one row, maintained along with the orders and rebuilt from them on demand.
+ * Cancelled orders are counted but not spent.
+ */
+@Entity
+@Table(name = "shopbee_order_summary", uniqueConstraints = {@UniqueConstraint(columnNames = {"tenant_id", "user_id"})})
+public class OrderSummary extends AbstractEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    // In minor units, see Money
+    @Column(name = "total_spent", nullable = false)
+    private long totalSpent;
+
+    @Column(name = "created_count", nullable = false)
+    private long createdCount;
+
+    @Column(name = "pending_payment_count", nullable = false)
+    private long pendingPaymentCount;
+
+    @Column(name = "paid_count", nullable = false)
+    private long paidCount;
+
+    @Column(name = "shipped_count", nullable = false)
+    private long shippedCount;
+
+    @Column(name = "delivered_count", nullable = false)
+    private long deliveredCount;
+
+    @Column(name = "cancelled_count", nullable = false)
+    private long cancelledCount;
+
+    @Column(name = "last_order_id")
+    private String lastOrderId;
+
+    @Column(name = "last_order_at")
+    private OffsetDateTime lastOrderAt;
+
+    @Column(name = "last_order_status")
+    @Enumerated(EnumType.STRING)
+    private Order.Status lastOrderStatus;
+
+    @Column(name = "updated_at")
+    @UpdateTimestamp
+    private OffsetDateTime updatedAt;
+
+    public long getStatusCount(Order.Status status) {
+        return switch (status) {
+            case CREATED -> createdCount;
+            case PENDING_PAYMENT -> pendingPaymentCount;
+            case PAID -> paidCount;
+            case SHIPPED -> shippedCount;
+            case DELIVERED -> deliveredCount;
+            case CANCELLED -> cancelledCount;
+        };
+    }
+
+    public void setStatusCount(Order.Status status, long count) {
+        switch (status) {
+            case CREATED -> createdCount = count;
+            case PENDING_PAYMENT -> pendingPaymentCount = count;
+            case PAID -> paidCount = count;
+            case SHIPPED -> shippedCount = count;
+            case DELIVERED -> deliveredCount = count;
+            case CANCELLED -> cancelledCount = count;
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public long getTotalSpent() {
+        return totalSpent;
+    }
+
+    public void setTotalSpent(long totalSpent) {
+        this.totalSpent = totalSpent;
+    }
+
+    public String getLastOrderId() {
+        return lastOrderId;
+    }
+
+    public void setLastOrderId(String lastOrderId) {
+        this.lastOrderId = lastOrderId;
+    }
+
+    public OffsetDateTime getLastOrderAt() {
+        return lastOrderAt;
+    }
+
+    public void setLastOrderAt(OffsetDateTime lastOrderAt) {
+        this.lastOrderAt = lastOrderAt;
+    }
+
+    public Order.Status getLastOrderStatus() {
+        return lastOrderStatus;
+    }
+
+    public void setLastOrderStatus(Order.Status lastOrderStatus) {
+        this.lastOrderStatus = lastOrderStatus;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
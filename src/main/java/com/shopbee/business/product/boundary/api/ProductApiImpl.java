@@ -1,25 +1,33 @@
 package com.shopbee.business.product.boundary.api;
 
+import com.shopbee.business.product.control.importer.ProductImportFormat;
 import com.shopbee.business.product.control.service.ProductService;
+import com.shopbee.common.pagination.CursorPage;
 import com.shopbee.product.boundary.api.ProductsApi;
+import com.shopbee.product.model.BulkPatchProductsRequest;
 import com.shopbee.product.model.CreateProductRequest;
 import com.shopbee.product.model.PatchProductByIdRequest;
 import com.shopbee.product.model.UpdateProductByIdRequest;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import jakarta.ws.rs.core.UriInfo;
 
+import java.io.InputStream;
 import java.net.URI;
 
 public class ProductApiImpl implements ProductsApi {
 
     private final ProductService productService;
     private final UriInfo uriInfo;
+    private final HttpHeaders httpHeaders;
 
     @Inject
-    public ProductApiImpl(ProductService productService, UriInfo uriInfo) {
+    public ProductApiImpl(ProductService productService, UriInfo uriInfo, HttpHeaders httpHeaders) {
         this.productService = productService;
         this.uriInfo = uriInfo;
+        this.httpHeaders = httpHeaders;
     }
 
     @Override
@@ -35,14 +43,38 @@ public class ProductApiImpl implements ProductsApi {
         return Response.noContent().build();
     }
 
+    @Override
+    public Response exportProducts(String tenantId) {
+        StreamingOutput products = output -> productService.exportProducts(tenantId, output);
+        return Response.ok(products).build();
+    }
+
     @Override
     public Response getProductById(String tenantId, String productId) {
         return Response.ok(productService.getProductById(tenantId, productId)).build();
     }
 
     @Override
-    public Response getProducts(String tenantId, Integer offset, Integer limit) {
-        return Response.ok(productService.getProducts(tenantId, offset, limit)).build();
+    public Response getProducts(String tenantId, Integer offset, Integer limit, String cursor) {
+        var products = productService.getProducts(tenantId, offset, limit, cursor);
+        return Response.ok(products.items()).header(CursorPage.NEXT_CURSOR_HEADER, products.nextCursor()).build();
+    }
+
+    @Override
+    public Response importProducts(String tenantId, InputStream body) {
+        ProductImportFormat format = ProductImportFormat.of(httpHeaders.getMediaType());
+        return Response.ok(productService.importProducts(tenantId, format, body)).build();
+    }
+
+    @Override
+    public Response searchProducts(String tenantId, String q, String category, String status,
+                                   Double minPrice, Double maxPrice, Integer offset, Integer limit) {
+        return Response.ok(productService.searchProducts(tenantId, q, category, status, minPrice, maxPrice, offset, limit)).build();
+    }
+
+    @Override
+    public Response patchProducts(String tenantId, BulkPatchProductsRequest bulkPatchProductsRequest) {
+        return Response.ok(productService.patchProducts(tenantId, bulkPatchProductsRequest)).build();
     }
 
     @Override
@@ -0,0 +1,78 @@
+/*
+ * ProductCache.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.cache;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CompositeCacheKey;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Invalidates the products cached by {@code ProductService#getProductById}, keyed by {@code (tenantId, productId)}.
+ * <p>
+ * Entries are dropped right away and once more after the surrounding transaction completes, so that a read
+ * racing with the transaction cannot leave the uncommitted state in the cache.
+ * </p>
+ */
+@ApplicationScoped
+public class ProductCache {
+
+    public static final String NAME = "products";
+
+    private final Cache cache;
+    private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Inject
+    public ProductCache(@CacheName(NAME) Cache cache, TransactionSynchronizationRegistry transactionSynchronizationRegistry) {
+        this.cache = cache;
+        this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+    }
+
+    public void invalidate(String tenantId, String productId) {
+        invalidate(tenantId, List.of(productId));
+    }
+
+    public void invalidate(String tenantId, Collection<String> productIds) {
+        List<CompositeCacheKey> keys = productIds.stream().map(productId -> new CompositeCacheKey(tenantId, productId)).toList();
+        invalidateNowAndAfterCompletion(() -> keys.forEach(key -> cache.invalidate(key).await().indefinitely()));
+    }
+
+    /**
+     * Invalidates every cached product of a tenant, for writes that do not know which products they changed.
+     *
+     * @param tenantId the tenant id
+     */
+    public void invalidateTenant(String tenantId) {
+        invalidateNowAndAfterCompletion(() -> cache.invalidateIf(key -> key instanceof CompositeCacheKey compositeKey
+                && tenantId.equals(compositeKey.getKeyElements()[0])).await().indefinitely());
+    }
+
+    private void invalidateNowAndAfterCompletion(Runnable invalidation) {
+        invalidation.run();
+        if (transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                    // Nothing to do before completion
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
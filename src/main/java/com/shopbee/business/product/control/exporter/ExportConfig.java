@@ -0,0 +1,30 @@
+/*
+ * ExportConfig.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.exporter;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+@ConfigMapping(prefix = "shopbee.product.export")
+public interface ExportConfig {
+
+    /**
+     * The number of rows fetched from the database per round trip, also the number of products written
+     * between two flushes of the response.
+     */
+    @WithDefault("1000")
+    int fetchSize();
+
+    /**
+     * The timeout of the read-only transaction an export runs in.
+     */
+    @WithDefault("30m")
+    Duration timeout();
+}
@@ -0,0 +1,91 @@
+/*
+ * ProductExporter.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.exporter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopbee.business.product.control.mapper.ProductMapper;
+import com.shopbee.business.product.control.repository.ProductRepository;
+import com.shopbee.business.product.entity.Product;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the products of a tenant as JSON lines straight from a database cursor. Each product is mapped,
+ * written and detached before the next one is fetched, so heap use does not depend on the catalogue size.
+ */
+@ApplicationScoped
+public class ProductExporter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductExporter.class);
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ObjectMapper objectMapper;
+    private final ExportConfig exportConfig;
+
+    @Inject
+    public ProductExporter(ProductRepository productRepository,
+                           ProductMapper productMapper,
+                           ObjectMapper objectMapper,
+                           ExportConfig exportConfig) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.objectMapper = objectMapper;
+        this.exportConfig = exportConfig;
+    }
+
+    /**
+     * Writes every product of the tenant to the given output, oldest first.
+     *
+     * @param tenantId the tenant id
+     * @param output   the output, left open
+     * @return the number of products written
+     */
+    public long export(String tenantId, OutputStream output) {
+        long exported = QuarkusTransaction.requiringNew()
+                .timeout((int) exportConfig.timeout().toSeconds())
+                .call(() -> write(tenantId, output));
+        LOG.info("Exported {} products", exported);
+        return exported;
+    }
+
+    private long write(String tenantId, OutputStream output) {
+        int fetchSize = exportConfig.fetchSize();
+        // Without a root value separator every line holds exactly one JSON document, the mapper would
+        // start each line after the first with a space
+        try (JsonGenerator generator = objectMapper.writer().withRootValueSeparator("").createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+             Stream<Product> products = productRepository.streamAll(tenantId, fetchSize)) {
+            long exported = 0;
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                generator.writeObject(productMapper.toProductDTO(product));
+                generator.writeRaw('\n');
+                productRepository.getEntityManager().detach(product);
+                // Flush the first product right away so the client does not wait for a full fetch
+                if (++exported == 1 || exported % fetchSize == 0) {
+                    generator.flush();
+                }
+            }
+            return exported;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * CsvProductRowReader.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.importer;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.shopbee.product.model.CreateProductRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads one product per CSV record, the header row names the product properties of the columns.
+ * Empty cells are read as absent values.
+ */
+class CsvProductRowReader implements ProductRowReader {
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final CsvSchema SCHEMA = CsvSchema.emptySchema().withHeader();
+
+    private final MappingIterator<Map<String, String>> records;
+    private final ObjectMapper objectMapper;
+    private long recordNumber;
+
+    CsvProductRowReader(InputStream body, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        try {
+            this.records = CSV_MAPPER.readerForMapOf(String.class).with(SCHEMA).readValues(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return records.hasNextValue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public ProductRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Map<String, String> record;
+        try {
+            record = records.nextValue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // The header takes the first line, multi-line cells are not accounted for
+        long line = ++recordNumber + 1;
+        record.values().removeIf(String::isEmpty);
+        try {
+            return ProductRow.parsed(line, objectMapper.convertValue(record, CreateProductRequest.class));
+        } catch (IllegalArgumentException e) {
+            return ProductRow.failed(line, "Invalid CSV record: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        records.close();
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * ImportConfig.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.importer;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+@ConfigMapping(prefix = "shopbee.product.import")
+public interface ImportConfig {
+
+    /**
+     * The number of rows validated and persisted per transaction.
+     */
+    @WithDefault("500")
+    int chunkSize();
+
+    /**
+     * The maximum number of row errors returned in the import report, further errors are only counted.
+     */
+    @WithDefault("100")
+    int maxReportedErrors();
+}
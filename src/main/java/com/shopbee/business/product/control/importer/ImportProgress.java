@@ -0,0 +1,70 @@
+/*
+ * ImportProgress.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.importer;
+
+import com.shopbee.product.model.ImportProductError;
+import com.shopbee.product.model.ImportProductsReport;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the rows of an import and keeps the errors of the first failed rows and why the import was aborted, if it was.
+ */
+class ImportProgress {
+
+    private final int maxReportedErrors;
+    private final List<ImportProductError> errors = new ArrayList<>();
+    private final long startedAt = System.nanoTime();
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private String abortReason;
+
+    ImportProgress(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    void read() {
+        totalRows++;
+    }
+
+    long totalRows() {
+        return totalRows;
+    }
+
+    void aborted(String reason) {
+        abortReason = reason;
+    }
+
+    void imported(int rows) {
+        importedRows += rows;
+    }
+
+    void failed(ProductRow row, String message) {
+        failedRows++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new ImportProductError().line(row.line()).sku(row.sku()).message(message));
+        }
+    }
+
+    ImportProductsReport toReport() {
+        Duration duration = Duration.ofNanos(System.nanoTime() - startedAt);
+        double seconds = Math.max(duration.toNanos(), 1) / 1_000_000_000d;
+        return new ImportProductsReport()
+                .totalRows(totalRows)
+                .importedRows(importedRows)
+                .failedRows(failedRows)
+                .durationMillis(duration.toMillis())
+                .rowsPerSecond(totalRows / seconds)
+                .completed(abortReason == null)
+                .abortReason(abortReason)
+                .errors(errors);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * ProductImportFormat.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopbee.common.exception.ApiServiceException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.io.InputStream;
+
+public enum ProductImportFormat {
+
+    JSON_LINES("application/x-ndjson") {
+        @Override
+        ProductRowReader open(InputStream body, ObjectMapper objectMapper) {
+            return new JsonLinesProductRowReader(body, objectMapper.reader());
+        }
+    },
+    CSV("text/csv") {
+        @Override
+        ProductRowReader open(InputStream body, ObjectMapper objectMapper) {
+            return new CsvProductRowReader(body, objectMapper);
+        }
+    };
+
+    private final MediaType mediaType;
+
+    ProductImportFormat(String mediaType) {
+        this.mediaType = MediaType.valueOf(mediaType);
+    }
+
+    abstract ProductRowReader open(InputStream body, ObjectMapper objectMapper);
+
+    /**
+     * Resolves the format of an import body from its content type.
+     *
+     * @param mediaType the content type of the body
+     * @return the format
+     * @throws ApiServiceException if the content type is not supported
+     */
+    public static ProductImportFormat of(MediaType mediaType) {
+        for (ProductImportFormat format : values()) {
+            if (mediaType != null && format.mediaType.isCompatible(mediaType)) {
+                return format;
+            }
+        }
+        throw ApiServiceException.create(Response.Status.UNSUPPORTED_MEDIA_TYPE, "Unsupported import content type [{}]", mediaType);
+    }
+}
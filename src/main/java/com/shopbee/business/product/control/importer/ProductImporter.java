@@ -0,0 +1,151 @@
+/*
+ * ProductImporter.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopbee.business.product.control.mapper.ProductMapper;
+import com.shopbee.business.product.control.repository.ProductRepository;
+import com.shopbee.business.product.entity.Product;
+import com.shopbee.common.money.Money;
+import com.shopbee.product.model.CreateProductRequest;
+import com.shopbee.product.model.ImportProductsReport;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports products from a streamed body in chunks. Each chunk checks its SKUs with one query and is
+ * persisted with batched inserts in a transaction of its own, so memory use does not grow with the body
+ * and a failing chunk does not undo the chunks before it. A body that cannot be read to its end does not
+ * undo them either, the rows read until then are imported and the report tells that the import was aborted.
+ */
+@ApplicationScoped
+public class ProductImporter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductImporter.class);
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ImportConfig importConfig;
+
+    @Inject
+    public ProductImporter(ProductRepository productRepository,
+                           ProductMapper productMapper,
+                           ObjectMapper objectMapper,
+                           Validator validator,
+                           ImportConfig importConfig) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.importConfig = importConfig;
+    }
+
+    /**
+     * Imports the products of the given body. Rows that are invalid or whose SKU already exists are skipped
+     * and reported, as is a body that cannot be read to its end.
+     *
+     * @param tenantId the tenant id
+     * @param format   the format of the body
+     * @param body     the body
+     * @return the import report
+     */
+    public ImportProductsReport importProducts(String tenantId, ProductImportFormat format, InputStream body) {
+        ImportProgress progress = new ImportProgress(importConfig.maxReportedErrors());
+        List<ProductRow> chunk = new ArrayList<>(importConfig.chunkSize());
+        try (ProductRowReader reader = format.open(body, objectMapper)) {
+            while (reader.hasNext()) {
+                ProductRow row = reader.next();
+                progress.read();
+                if (row.error() != null) {
+                    progress.failed(row, row.error());
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == importConfig.chunkSize()) {
+                    importChunk(tenantId, chunk, progress);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // The chunks before are committed, so the rows read so far are imported and the report says where it stopped
+            LOG.warn("Could not read import body after {} rows: {}", progress.totalRows(), e.getMessage());
+            progress.aborted("Could not read import body: " + e.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(tenantId, chunk, progress);
+        }
+
+        ImportProductsReport report = progress.toReport();
+        LOG.info("Imported {} of {} products in {} ms", report.getImportedRows(), report.getTotalRows(), report.getDurationMillis());
+        return report;
+    }
+
+    private void importChunk(String tenantId, List<ProductRow> chunk, ImportProgress progress) {
+        List<ProductRow> candidates = new ArrayList<>(chunk.size());
+        Set<String> skus = new HashSet<>();
+        for (ProductRow row : chunk) {
+            Set<ConstraintViolation<CreateProductRequest>> violations = validator.validate(row.request());
+            if (!violations.isEmpty()) {
+                progress.failed(row, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            } else if (!Money.fitsScale(row.request().getPrice())) {
+                progress.failed(row, "price must have at most " + Money.SCALE + " decimal places");
+            } else if (!skus.add(row.sku())) {
+                progress.failed(row, "SKU [" + row.sku() + "] is repeated in the import");
+            } else {
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<ProductRow> existing = QuarkusTransaction.requiringNew().call(() -> persistNew(tenantId, candidates, skus));
+            existing.forEach(row -> progress.failed(row, "SKU [" + row.sku() + "] already exists"));
+            progress.imported(candidates.size() - existing.size());
+        } catch (RuntimeException e) {
+            // A concurrent write took one of the SKUs after the check, the whole chunk was rolled back
+            LOG.warn("Could not import chunk of {} products: {}", candidates.size(), e.getMessage());
+            candidates.forEach(row -> progress.failed(row, "Chunk rejected: " + e.getMessage()));
+        }
+    }
+
+    private List<ProductRow> persistNew(String tenantId, List<ProductRow> candidates, Set<String> skus) {
+        Set<String> existingSkus = new HashSet<>(productRepository.findExistingSkus(tenantId, skus));
+        List<ProductRow> existing = new ArrayList<>();
+        List<Product> products = new ArrayList<>(candidates.size());
+        for (ProductRow row : candidates) {
+            if (existingSkus.contains(row.sku())) {
+                existing.add(row);
+            } else {
+                products.add(productMapper.toProduct(tenantId, row.request()));
+            }
+        }
+        productRepository.persist(products);
+        return existing;
+    }
+}
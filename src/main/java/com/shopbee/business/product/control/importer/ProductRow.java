@@ -0,0 +1,32 @@
+/*
+ * ProductRow.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.importer;
+
+import com.shopbee.product.model.CreateProductRequest;
+
+/**
+ * A row of an import body, either parsed into a product or carrying the reason it could not be parsed.
+ *
+ * @param line    the line of the row in the body, starting at 1
+ * @param request the parsed product, {@code null} if the row could not be parsed
+ * @param error   the parse error, {@code null} if the row was parsed
+ */
+public record ProductRow(long line, CreateProductRequest request, String error) {
+
+    public static ProductRow parsed(long line, CreateProductRequest request) {
+        return new ProductRow(line, request, null);
+    }
+
+    public static ProductRow failed(long line, String error) {
+        return new ProductRow(line, null, error);
+    }
+
+    public String sku() {
+        return request == null ? null : request.getSku();
+    }
+}
@@ -0,0 +1,18 @@
+/*
+ * ProductRowReader.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.importer;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * Reads the rows of an import body one at a time, so that only the current row is held in memory.
+ * A row that cannot be parsed is returned as a failed row instead of ending the import.
+ */
+public interface ProductRowReader extends Iterator<ProductRow>, Closeable {
+}
@@ -1,6 +1,7 @@
 package com.shopbee.business.product.control.mapper;
 
 import com.shopbee.business.product.entity.Product;
+import com.shopbee.common.money.Money;
 import com.shopbee.product.model.CreateProductRequest;
 import com.shopbee.product.model.PatchProductByIdRequest;
 import com.shopbee.product.model.ProductDTO;
@@ -16,7 +17,7 @@ import org.mapstruct.ReportingPolicy;
 import java.net.URI;
 import java.util.List;
 
-@Mapper(componentModel = MappingConstants.ComponentModel.CDI, unmappedTargetPolicy = ReportingPolicy.IGNORE)
+@Mapper(componentModel = MappingConstants.ComponentModel.CDI, unmappedTargetPolicy = ReportingPolicy.IGNORE, uses = Money.class)
 public interface ProductMapper {
 
     ProductDTO toProductDTO(Product product);
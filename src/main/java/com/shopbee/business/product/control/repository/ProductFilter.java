@@ -0,0 +1,26 @@
+/*
+ * ProductFilter.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.repository;
+
+import com.shopbee.business.product.entity.Product;
+
+import java.util.Collection;
+
+/**
+ * Selects the products matching every given property, {@code null} properties are not filtered on.
+ *
+ * @param category the category
+ * @param status   the status
+ * @param ids      the product ids
+ */
+public record ProductFilter(String category, Product.Status status, Collection<String> ids) {
+
+    public boolean isEmpty() {
+        return category == null && status == null && (ids == null || ids.isEmpty());
+    }
+}
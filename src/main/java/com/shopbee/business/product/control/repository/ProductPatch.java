@@ -0,0 +1,24 @@
+/*
+ * ProductPatch.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.repository;
+
+import com.shopbee.business.product.entity.Product;
+
+/**
+ * The properties a bulk patch can set, {@code null} properties are left unchanged.
+ *
+ * @param price    the price in minor units
+ * @param status   the status
+ * @param category the category
+ */
+public record ProductPatch(Long price, Product.Status status, String category) {
+
+    public boolean isEmpty() {
+        return price == null && status == null && category == null;
+    }
+}
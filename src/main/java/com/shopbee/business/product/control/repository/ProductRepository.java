@@ -1,16 +1,57 @@
 package com.shopbee.business.product.control.repository;
 
 import com.shopbee.business.product.entity.Product;
+import com.shopbee.common.pagination.PageCursor;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.jpa.HibernateHints;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @ApplicationScoped
 public class ProductRepository implements PanacheRepository<Product> {
 
+    private static final Sort KEYSET_ORDER = Sort.by("createdAt").and("id");
+
     public List<Product> findAll(String tenantId, int page, int size) {
-        return find("tenantId", tenantId).page(page, size).list();
+        return find("tenantId", KEYSET_ORDER, tenantId).page(page, size).list();
+    }
+
+    /**
+     * Loads the page of products that follows the given cursor in {@code (createdAt, id)} order.
+     *
+     * @param tenantId the tenant id
+     * @param cursor   the position of the last product of the previous page
+     * @param size     the page size
+     * @return the products of the page
+     */
+    public List<Product> findAfter(String tenantId, PageCursor cursor, int size) {
+        return find("tenantId = ?1 AND (createdAt > ?2 OR (createdAt = ?2 AND id > ?3))", KEYSET_ORDER,
+                tenantId, cursor.createdAt(), cursor.id())
+                .range(0, size - 1)
+                .list();
+    }
+
+    /**
+     * Streams every product of the tenant from a read-only cursor, to be consumed inside a transaction.
+     *
+     * @param tenantId  the tenant id
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the products in {@code (createdAt, id)} order
+     */
+    public Stream<Product> streamAll(String tenantId, int fetchSize) {
+        return find("tenantId", KEYSET_ORDER, tenantId)
+                .withHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .withHint(HibernateHints.HINT_READ_ONLY, true)
+                .stream();
     }
 
     public Product findById(String tenantId, String id) {
@@ -25,7 +66,172 @@ public class ProductRepository implements PanacheRepository<Product> {
         return count("tenantId = ?1 AND sku = ?2", tenantId, sku);
     }
 
+    /**
+     * Finds which of the given SKUs are already taken, with a single query.
+     *
+     * @param tenantId the tenant id
+     * @param skus     the SKUs to check
+     * @return the SKUs that exist
+     */
+    public List<String> findExistingSkus(String tenantId, Collection<String> skus) {
+        return getEntityManager().createQuery("SELECT p.sku FROM Product p WHERE p.tenantId = :tenantId AND p.sku IN :skus", String.class)
+                .setParameter("tenantId", tenantId)
+                .setParameter("skus", skus)
+                .getResultList();
+    }
+
     public long countBySkuExcludeProductId(String tenantId, String sku, String excludeProductId) {
         return count("tenantId = ?1 AND sku = ?2 AND id <> ?3", tenantId, sku, excludeProductId);
     }
+
+    /**
+     * Loads the stock levels of the given products with a single query.
+     *
+     * @param tenantId the tenant id
+     * @param ids      the product ids
+     * @return the stock levels of the products that exist
+     */
+    public List<StockLevel> findStockLevels(String tenantId, Collection<String> ids) {
+        return find("tenantId = ?1 AND id IN ?2", tenantId, ids).project(StockLevel.class).list();
+    }
+
+    /**
+     * Decrements the stock of every given product with a single UPDATE statement. A product is only
+     * decremented when it still has the version it was read at and its stock covers the requested quantity.
+     *
+     * @param tenantId   the tenant id
+     * @param quantities the quantity to take per product id
+     * @param versions   the version each product was read at
+     * @return the number of products that were decremented
+     */
+    public int decrementStock(String tenantId, Map<String, Integer> quantities, Map<String, Long> versions) {
+        Parameters parameters = stockParameters(tenantId, quantities);
+        String quantity = caseExpression(quantities, "quantity", parameters);
+        String version = caseExpression(versions, "version", parameters);
+        return update("stockQuantity = COALESCE(stockQuantity, 0) - " + quantity
+                + ", version = version + 1, updatedAt = :now"
+                + " WHERE tenantId = :tenantId AND id IN :ids AND version = " + version
+                + " AND stockQuantity >= " + quantity, parameters);
+    }
+
+    /**
+     * Increments the stock of every given product with a single UPDATE statement.
+     *
+     * @param tenantId   the tenant id
+     * @param quantities the quantity to add per product id, negative to take stock without a guard
+     * @return the number of products that were incremented
+     */
+    public int incrementStock(String tenantId, Map<String, Integer> quantities) {
+        Parameters parameters = stockParameters(tenantId, quantities);
+        String quantity = caseExpression(quantities, "quantity", parameters);
+        return update("stockQuantity = COALESCE(stockQuantity, 0) + " + quantity
+                + ", version = version + 1, updatedAt = :now"
+                + " WHERE tenantId = :tenantId AND id IN :ids", parameters);
+    }
+
+    /**
+     * Applies one patch to every product matching the filter with a single UPDATE statement.
+     *
+     * @param tenantId the tenant id
+     * @param filter   the products to patch, not empty
+     * @param patch    the patch, not empty
+     * @return the number of products that were patched
+     */
+    public int patchMatching(String tenantId, ProductFilter filter, ProductPatch patch) {
+        Parameters parameters = Parameters.with("tenantId", tenantId).and("now", OffsetDateTime.now());
+        List<String> assignments = new ArrayList<>();
+        if (patch.price() != null) {
+            assignments.add("price = :price");
+            parameters.and("price", patch.price());
+        }
+        if (patch.status() != null) {
+            assignments.add("status = :status");
+            parameters.and("status", patch.status());
+        }
+        if (patch.category() != null) {
+            assignments.add("category = :category");
+            parameters.and("category", patch.category());
+        }
+
+        StringBuilder where = new StringBuilder(" WHERE tenantId = :tenantId");
+        if (filter.category() != null) {
+            where.append(" AND category = :filterCategory");
+            parameters.and("filterCategory", filter.category());
+        }
+        if (filter.status() != null) {
+            where.append(" AND status = :filterStatus");
+            parameters.and("filterStatus", filter.status());
+        }
+        if (filter.ids() != null && !filter.ids().isEmpty()) {
+            where.append(" AND id IN :ids");
+            parameters.and("ids", filter.ids());
+        }
+        return update(String.join(", ", assignments) + ", version = version + 1, updatedAt = :now" + where, parameters);
+    }
+
+    /**
+     * Applies a patch per product with a single UPDATE statement, every patched property is set through
+     * a CASE expression over the ids of the products that patch it.
+     *
+     * @param tenantId the tenant id
+     * @param patches  the patch per product id, none of them empty
+     * @return the number of products that were patched
+     */
+    public int patchEach(String tenantId, Map<String, ProductPatch> patches) {
+        Parameters parameters = Parameters.with("tenantId", tenantId)
+                .and("ids", patches.keySet())
+                .and("now", OffsetDateTime.now());
+        Map<String, Long> prices = new LinkedHashMap<>();
+        Map<String, Product.Status> statuses = new LinkedHashMap<>();
+        Map<String, String> categories = new LinkedHashMap<>();
+        patches.forEach((id, patch) -> {
+            if (patch.price() != null) {
+                prices.put(id, patch.price());
+            }
+            if (patch.status() != null) {
+                statuses.put(id, patch.status());
+            }
+            if (patch.category() != null) {
+                categories.put(id, patch.category());
+            }
+        });
+
+        List<String> assignments = new ArrayList<>();
+        if (!prices.isEmpty()) {
+            assignments.add("price = " + caseExpression(prices, "price", parameters, "price"));
+        }
+        if (!statuses.isEmpty()) {
+            assignments.add("status = " + caseExpression(statuses, "status", parameters, "status"));
+        }
+        if (!categories.isEmpty()) {
+            assignments.add("category = " + caseExpression(categories, "category", parameters, "category"));
+        }
+        return update(String.join(", ", assignments) + ", version = version + 1, updatedAt = :now"
+                + " WHERE tenantId = :tenantId AND id IN :ids", parameters);
+    }
+
+    private Parameters stockParameters(String tenantId, Map<String, Integer> quantities) {
+        return Parameters.with("tenantId", tenantId)
+                .and("ids", quantities.keySet())
+                .and("now", OffsetDateTime.now());
+    }
+
+    private String caseExpression(Map<String, ?> valuesById, String name, Parameters parameters) {
+        return caseExpression(valuesById, name, parameters, null);
+    }
+
+    private String caseExpression(Map<String, ?> valuesById, String name, Parameters parameters, String otherwise) {
+        StringBuilder expression = new StringBuilder("(CASE id");
+        int index = 0;
+        for (Map.Entry<String, ?> entry : valuesById.entrySet()) {
+            expression.append(" WHEN :").append(name).append("Id").append(index)
+                    .append(" THEN :").append(name).append(index);
+            parameters.and(name + "Id" + index, entry.getKey()).and(name + index, entry.getValue());
+            index++;
+        }
+        if (otherwise != null) {
+            expression.append(" ELSE ").append(otherwise);
+        }
+        return expression.append(" END)").toString();
+    }
 }
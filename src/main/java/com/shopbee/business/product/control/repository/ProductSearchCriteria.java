@@ -0,0 +1,22 @@
+/*
+ * ProductSearchCriteria.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.repository;
+
+import com.shopbee.business.product.entity.Product;
+
+/**
+ * The filters of a product search, every filter is optional.
+ *
+ * @param query    the full-text query in web search syntax
+ * @param category the category
+ * @param status   the status
+ * @param minPrice the minimum price in minor units, inclusive
+ * @param maxPrice the maximum price in minor units, inclusive
+ */
+public record ProductSearchCriteria(String query, String category, Product.Status status, Long minPrice, Long maxPrice) {
+}
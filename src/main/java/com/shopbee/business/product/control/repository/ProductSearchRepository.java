@@ -0,0 +1,146 @@
+/*
+ * ProductSearchRepository.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.repository;
+
+import com.shopbee.business.product.entity.Product;
+import io.quarkus.cache.CacheResult;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Searches products through the {@code search_vector} column, a Postgres {@code tsvector} generated from
+ * the name, category and description of a product and indexed with GIN.
+ */
+@ApplicationScoped
+public class ProductSearchRepository {
+
+    public static final String FACETS_CACHE_NAME = "product-facets";
+
+    private static final String TS_QUERY = "websearch_to_tsquery('simple', :query)";
+
+    private final EntityManager entityManager;
+
+    @Inject
+    public ProductSearchRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Finds a page of the matching products, best matches first when there is a full-text query.
+     *
+     * @param tenantId the tenant id
+     * @param criteria the search criteria
+     * @param page     the page index
+     * @param size     the page size
+     * @return the products of the page
+     */
+    @SuppressWarnings("unchecked")
+    public List<Product> search(String tenantId, ProductSearchCriteria criteria, int page, int size) {
+        Map<String, Object> parameters = new HashMap<>();
+        String order = StringUtils.isBlank(criteria.query())
+                ? "p.created_at, p.id"
+                : "ts_rank(p.search_vector, " + TS_QUERY + ") DESC, p.created_at, p.id";
+        Query query = entityManager.createNativeQuery("SELECT p.* FROM shopbee_product p"
+                        + where(tenantId, criteria, parameters)
+                        + " ORDER BY " + order + " LIMIT :limit OFFSET :offset", Product.class)
+                .setParameter("limit", size)
+                .setParameter("offset", page * size);
+        parameters.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    /**
+     * Counts the matching products in total, per category and per status with a single grouping sets query.
+     * The query visits every matching product, all products of the tenant when there is no filter, so the
+     * counts are cached per tenant and criteria and lag behind product changes by up to the cache expiry.
+     *
+     * @param tenantId the tenant id
+     * @param criteria the search criteria
+     * @return the counts
+     */
+    @SuppressWarnings("unchecked")
+    @CacheResult(cacheName = FACETS_CACHE_NAME)
+    public FacetCounts countFacets(String tenantId, ProductSearchCriteria criteria) {
+        Map<String, Object> parameters = new HashMap<>();
+        Query query = entityManager.createNativeQuery("SELECT GROUPING(p.category), GROUPING(p.status), p.category, p.status, COUNT(*)"
+                + " FROM shopbee_product p" + where(tenantId, criteria, parameters)
+                + " GROUP BY GROUPING SETS ((p.category), (p.status), ())");
+        parameters.forEach(query::setParameter);
+
+        FacetCounts facetCounts = new FacetCounts();
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            boolean categoryGrouped = ((Number) row[0]).intValue() == 0;
+            boolean statusGrouped = ((Number) row[1]).intValue() == 0;
+            long count = ((Number) row[4]).longValue();
+            if (categoryGrouped) {
+                facetCounts.categories().put((String) row[2], count);
+            } else if (statusGrouped) {
+                facetCounts.statuses().put((String) row[3], count);
+            } else {
+                facetCounts.total = count;
+            }
+        }
+        return facetCounts;
+    }
+
+    private String where(String tenantId, ProductSearchCriteria criteria, Map<String, Object> parameters) {
+        StringBuilder where = new StringBuilder(" WHERE p.tenant_id = :tenantId");
+        parameters.put("tenantId", tenantId);
+        if (StringUtils.isNotBlank(criteria.query())) {
+            where.append(" AND p.search_vector @@ ").append(TS_QUERY);
+            parameters.put("query", criteria.query());
+        }
+        if (StringUtils.isNotBlank(criteria.category())) {
+            where.append(" AND p.category = :category");
+            parameters.put("category", criteria.category());
+        }
+        if (criteria.status() != null) {
+            where.append(" AND p.status = :status");
+            parameters.put("status", criteria.status().name());
+        }
+        if (criteria.minPrice() != null) {
+            where.append(" AND p.price >= :minPrice");
+            parameters.put("minPrice", criteria.minPrice());
+        }
+        if (criteria.maxPrice() != null) {
+            where.append(" AND p.price <= :maxPrice");
+            parameters.put("maxPrice", criteria.maxPrice());
+        }
+        return where.toString();
+    }
+
+    /**
+     * The number of matching products in total, per category and per status. Products without a category
+     * or status are counted under a {@code null} key.
+     */
+    public static final class FacetCounts {
+
+        private final Map<String, Long> categories = new HashMap<>();
+        private final Map<String, Long> statuses = new HashMap<>();
+        private long total;
+
+        public long total() {
+            return total;
+        }
+
+        public Map<String, Long> categories() {
+            return categories;
+        }
+
+        public Map<String, Long> statuses() {
+            return statuses;
+        }
+    }
+}
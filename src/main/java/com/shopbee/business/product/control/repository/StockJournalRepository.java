@@ -0,0 +1,58 @@
+/*
+ * StockJournalRepository.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.repository;
+
+import com.shopbee.business.product.entity.StockJournalEntry;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import org.hibernate.LockOptions;
+
+import java.util.Collection;
+import java.util.List;
+
+@ApplicationScoped
+public class StockJournalRepository implements PanacheRepositoryBase<StockJournalEntry, String> {
+
+    /**
+     * Reads the stock of the given products as the ledger sees it, i.e. the stored quantity plus the journal
+     * entries not written to the product yet. Both are read by one statement so a concurrent flush cannot
+     * count an entry twice.
+     *
+     * @param tenantId the tenant id
+     * @param ids      the product ids
+     * @return rows of product id, SKU and available quantity
+     */
+    public List<Object[]> findLedgerStock(String tenantId, Collection<String> ids) {
+        return getEntityManager().createQuery("SELECT p.id, p.sku, COALESCE(p.stockQuantity, 0)"
+                        + " + COALESCE((SELECT SUM(j.delta) FROM StockJournalEntry j WHERE j.tenantId = p.tenantId AND j.productId = p.id), 0)"
+                        + " FROM Product p WHERE p.tenantId = :tenantId AND p.id IN :ids", Object[].class)
+                .setParameter("tenantId", tenantId)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * Locks the oldest journal entries, skipping the ones another instance is already flushing.
+     *
+     * @param limit the maximum number of entries
+     * @return the locked entries
+     */
+    public List<StockJournalEntry> lockOldest(int limit) {
+        return findAll(Sort.ascending("createdAt"))
+                .page(0, limit)
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .withHint("jakarta.persistence.lock.timeout", LockOptions.SKIP_LOCKED)
+                .list();
+    }
+
+    public long deleteByIds(Collection<String> ids) {
+        return delete("id IN ?1", ids);
+    }
+}
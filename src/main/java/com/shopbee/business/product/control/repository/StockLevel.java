@@ -0,0 +1,24 @@
+/*
+ * StockLevel.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.repository;
+
+/**
+ * Lightweight projection of the columns of a product needed to reserve its stock and price an order.
+ *
+ * @param id            the product id
+ * @param sku           the product SKU
+ * @param price         the product price in minor units
+ * @param stockQuantity the quantity currently in stock, may be {@code null}
+ * @param version       the optimistic lock version the stock was read at
+ */
+public record StockLevel(String id, String sku, Long price, Integer stockQuantity, Long version) {
+
+    public int available() {
+        return stockQuantity == null ? 0 : stockQuantity;
+    }
+}
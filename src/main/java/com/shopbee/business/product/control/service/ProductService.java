@@ -1,28 +1,63 @@
 package com.shopbee.business.product.control.service;
 
+import com.shopbee.business.product.control.importer.ProductImportFormat;
+import com.shopbee.common.pagination.CursorPage;
 import com.shopbee.order.model.OrderItemDTO;
+import com.shopbee.product.model.BulkPatchProductsRequest;
+import com.shopbee.product.model.BulkPatchProductsResponse;
 import com.shopbee.product.model.CreateProductRequest;
+import com.shopbee.product.model.ImportProductsReport;
 import com.shopbee.product.model.PatchProductByIdRequest;
 import com.shopbee.product.model.ProductDTO;
+import com.shopbee.product.model.ProductSearchResult;
 import com.shopbee.product.model.UpdateProductByIdRequest;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 
 public interface ProductService {
 
-    List<ProductDTO> getProducts(String tenantId, Integer offset, Integer limit);
+    CursorPage<ProductDTO> getProducts(String tenantId, Integer offset, Integer limit, String cursor);
 
     ProductDTO getProductById(String tenantId, String productId);
 
+    ProductSearchResult searchProducts(String tenantId, String query, String category, String status,
+                                       Double minPrice, Double maxPrice, Integer offset, Integer limit);
+
     String createProduct(String tenantId, CreateProductRequest createProductRequest);
 
+    long exportProducts(String tenantId, OutputStream output);
+
+    ImportProductsReport importProducts(String tenantId, ProductImportFormat format, InputStream body);
+
     void updateProductById(String tenantId, String productId, UpdateProductByIdRequest updateProductByIdRequest);
 
     void patchProductById(String tenantId, String productId, PatchProductByIdRequest patchProductByIdRequest);
 
     void deleteProductById(String tenantId, String productId);
 
-    void reserveStock(String tenantId, List<OrderItemDTO> items);
-
-    void releaseStock(String tenantId, List<OrderItemDTO> items);
+    BulkPatchProductsResponse patchProducts(String tenantId, BulkPatchProductsRequest bulkPatchProductsRequest);
+
+    /**
+     * Reserves the stock of the given items in the transaction of the caller, all or nothing, reading every
+     * product once. The reservation is undone if that transaction does not commit.
+     *
+     * @param tenantId the tenant id
+     * @param items    the items to reserve
+     * @return the unit price per product id in minor units, as read with the stock
+     * @throws jakarta.persistence.OptimisticLockException if the stock changed concurrently, the caller retries
+     *                                                     its whole transaction
+     */
+    Map<String, Long> reserveStock(String tenantId, List<OrderItemDTO> items);
+
+    /**
+     * Gives the stock of the given items back in the transaction of the caller, it is written to the products
+     * shortly after that transaction commits and is not given back at all if it rolls back.
+     *
+     * @param tenantId the tenant id
+     * @param items    the items to give back
+     */
+    void releaseStockInTransaction(String tenantId, List<OrderItemDTO> items);
 }
@@ -1,25 +1,58 @@
 package com.shopbee.business.product.control.service.impl;
 
+import com.shopbee.common.bulkhead.TenantBulkhead;
 import com.shopbee.common.exception.ApiServiceException;
+import com.shopbee.common.money.Money;
+import com.shopbee.common.pagination.CursorPage;
+import com.shopbee.common.pagination.PageCursor;
 import com.shopbee.order.model.OrderItemDTO;
+import com.shopbee.business.product.control.cache.ProductCache;
+import com.shopbee.business.product.control.exporter.ProductExporter;
+import com.shopbee.business.product.control.importer.ProductImportFormat;
+import com.shopbee.business.product.control.importer.ProductImporter;
 import com.shopbee.business.product.control.mapper.ProductMapper;
+import com.shopbee.business.product.control.repository.ProductFilter;
+import com.shopbee.business.product.control.repository.ProductPatch;
 import com.shopbee.business.product.control.repository.ProductRepository;
+import com.shopbee.business.product.control.repository.ProductSearchCriteria;
+import com.shopbee.business.product.control.repository.ProductSearchRepository;
+import com.shopbee.business.product.control.repository.StockLevel;
 import com.shopbee.business.product.control.service.ProductService;
+import com.shopbee.business.product.control.stock.StockLedger;
+import com.shopbee.business.product.control.stock.StockWriter;
 import com.shopbee.business.product.entity.Product;
+import com.shopbee.product.model.BulkPatchProductsRequest;
+import com.shopbee.product.model.BulkPatchProductsResponse;
 import com.shopbee.product.model.CreateProductRequest;
+import com.shopbee.product.model.FacetCount;
+import com.shopbee.product.model.ImportProductsReport;
 import com.shopbee.product.model.PatchProductByIdRequest;
+import com.shopbee.product.model.ProductBulkFilter;
+import com.shopbee.product.model.ProductBulkPatch;
+import com.shopbee.product.model.ProductBulkPatchItem;
 import com.shopbee.product.model.ProductDTO;
+import com.shopbee.product.model.ProductSearchResult;
 import com.shopbee.product.model.UpdateProductByIdRequest;
+import io.quarkus.cache.CacheResult;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
+@TenantBulkhead
 public class ProductServiceImpl implements ProductService {
 
     private static final Logger LOG = LoggerFactory.getLogger(ProductServiceImpl.class);
@@ -27,24 +60,48 @@ public class ProductServiceImpl implements ProductService {
     private static final int DEFAULT_PAGE_INDEX = 0;
 
     private final ProductRepository productRepository;
+    private final ProductSearchRepository productSearchRepository;
     private final ProductMapper productMapper;
+    private final StockWriter stockWriter;
+    private final StockLedger stockLedger;
+    private final ProductCache productCache;
+    private final ProductImporter productImporter;
+    private final ProductExporter productExporter;
 
     @Inject
-    public ProductServiceImpl(ProductRepository productRepository, ProductMapper productMapper) {
+    public ProductServiceImpl(ProductRepository productRepository,
+                              ProductSearchRepository productSearchRepository,
+                              ProductMapper productMapper,
+                              StockWriter stockWriter,
+                              StockLedger stockLedger,
+                              ProductCache productCache,
+                              ProductImporter productImporter,
+                              ProductExporter productExporter) {
         this.productRepository = productRepository;
+        this.productSearchRepository = productSearchRepository;
         this.productMapper = productMapper;
+        this.stockWriter = stockWriter;
+        this.stockLedger = stockLedger;
+        this.productCache = productCache;
+        this.productImporter = productImporter;
+        this.productExporter = productExporter;
     }
 
     @Override
-    public List<ProductDTO> getProducts(String tenantId, Integer offset, Integer limit) {
-        LOG.info("Getting products with offset [{}] and limit [{}]", offset, limit);
+    public CursorPage<ProductDTO> getProducts(String tenantId, Integer offset, Integer limit, String cursor) {
+        LOG.info("Getting products with offset [{}], limit [{}] and cursor [{}]", offset, limit, cursor);
         int page = Optional.ofNullable(offset).orElse(DEFAULT_PAGE_INDEX);
         int size = Optional.ofNullable(limit).orElse(DEFAULT_PAGE_SIZE);
-        List<Product> foundProducts = productRepository.findAll(tenantId, page, size);
-        return productMapper.toProducts(foundProducts);
+        PageCursor after = PageCursor.decode(cursor);
+        List<Product> foundProducts = after == null
+                ? productRepository.findAll(tenantId, page, size)
+                : productRepository.findAfter(tenantId, after, size);
+        String nextCursor = PageCursor.next(foundProducts, size, p -> new PageCursor(p.getCreatedAt(), p.getId()));
+        return new CursorPage<>(productMapper.toProducts(foundProducts), nextCursor);
     }
 
     @Override
+    @CacheResult(cacheName = ProductCache.NAME)
     public ProductDTO getProductById(String tenantId, String productId) {
         LOG.info("Getting product by id [{}]", productId);
         return productMapper.toProductDTO(findProductById(tenantId, productId));
@@ -60,12 +117,49 @@ public class ProductServiceImpl implements ProductService {
         return product.getId();
     }
 
+    @Override
+    @Transactional
+    public ProductSearchResult searchProducts(String tenantId, String query, String category, String status,
+                                              Double minPrice, Double maxPrice, Integer offset, Integer limit) {
+        LOG.info("Searching products with query [{}], category [{}] and status [{}]", query, category, status);
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw ApiServiceException.badRequest("Minimum price [{}] is greater than maximum price [{}]", minPrice, maxPrice);
+        }
+        int page = Optional.ofNullable(offset).orElse(DEFAULT_PAGE_INDEX);
+        int size = Optional.ofNullable(limit).orElse(DEFAULT_PAGE_SIZE);
+        ProductSearchCriteria criteria = new ProductSearchCriteria(query, category, toStatus(status), Money.toMinor(minPrice), Money.toMinor(maxPrice));
+
+        List<Product> products = productSearchRepository.search(tenantId, criteria, page, size);
+        ProductSearchRepository.FacetCounts facetCounts = productSearchRepository.countFacets(tenantId, criteria);
+        return new ProductSearchResult()
+                .total(facetCounts.total())
+                .items(productMapper.toProducts(products))
+                .categories(toFacets(facetCounts.categories()))
+                .statuses(toFacets(facetCounts.statuses()));
+    }
+
+    @Override
+    public long exportProducts(String tenantId, OutputStream output) {
+        LOG.info("Exporting products");
+        return productExporter.export(tenantId, output);
+    }
+
+    @Override
+    public ImportProductsReport importProducts(String tenantId, ProductImportFormat format, InputStream body) {
+        LOG.info("Importing products from {}", format);
+        return productImporter.importProducts(tenantId, format, body);
+    }
+
     @Override
     @Transactional
     public void updateProductById(String tenantId, String productId, UpdateProductByIdRequest updateProductByIdRequest) {
         LOG.info("Updating product with id [{}]", productId);
         Product product = findProductById(tenantId, productId);
         productMapper.updateProduct(updateProductByIdRequest, product);
+        // Surface a version conflict with a concurrent stock update here rather than at commit
+        productRepository.flush();
+        stockLedger.evict(tenantId, productId);
+        productCache.invalidate(tenantId, productId);
     }
 
     @Override
@@ -74,6 +168,9 @@ public class ProductServiceImpl implements ProductService {
         LOG.info("Patching product with id [{}]", productId);
         Product product = findProductById(tenantId, productId);
         productMapper.patchProduct(patchProductByIdRequest, product);
+        productRepository.flush();
+        stockLedger.evict(tenantId, productId);
+        productCache.invalidate(tenantId, productId);
     }
 
     @Override
@@ -82,31 +179,72 @@ public class ProductServiceImpl implements ProductService {
         LOG.info("Deleting product with id [{}]", productId);
         Product product = findProductById(tenantId, productId);
         productRepository.delete(product);
+        stockLedger.evict(tenantId, productId);
+        productCache.invalidate(tenantId, productId);
     }
 
     @Override
     @Transactional
-    public void reserveStock(String tenantId, List<OrderItemDTO> items) {
-        LOG.info("Reserving stock for {} items", items.size());
-        for (OrderItemDTO item : items) {
-            Product product = findProductById(tenantId, item.getProductId());
-            int newStock = product.getStockQuantity() - item.getQuantity();
-            if (newStock < 0) {
-                throw ApiServiceException.conflict("Not enough stock for product [{}]. Requested: {}, Available: {}",
-                        item.getProductId(), item.getQuantity(), product.getStockQuantity());
+    public BulkPatchProductsResponse patchProducts(String tenantId, BulkPatchProductsRequest bulkPatchProductsRequest) {
+        ProductBulkFilter filter = bulkPatchProductsRequest.getFilter();
+        List<ProductBulkPatchItem> items = bulkPatchProductsRequest.getItems();
+        if ((filter == null) == CollectionUtils.isEmpty(items)) {
+            throw ApiServiceException.badRequest("Either a filter with a patch or a list of items is required");
+        }
+
+        int affectedRows;
+        if (filter != null) {
+            LOG.info("Patching products matching category [{}] and status [{}]", filter.getCategory(), filter.getStatus());
+            ProductFilter productFilter = new ProductFilter(filter.getCategory(), toStatus(filter.getStatus()), filter.getIds());
+            if (productFilter.isEmpty()) {
+                throw ApiServiceException.badRequest("The filter must select by category, status or ids");
+            }
+            affectedRows = productRepository.patchMatching(tenantId, productFilter, toPatch(bulkPatchProductsRequest.getPatch()));
+            productCache.invalidateTenant(tenantId);
+        } else {
+            LOG.info("Patching {} products", items.size());
+            Map<String, ProductPatch> patches = new LinkedHashMap<>();
+            for (ProductBulkPatchItem item : items) {
+                if (patches.put(item.getId(), toPatch(item.getPatch())) != null) {
+                    throw ApiServiceException.badRequest("Product [{}] is patched more than once", item.getId());
+                }
             }
-            product.setStockQuantity(newStock);
+            affectedRows = productRepository.patchEach(tenantId, patches);
+            productCache.invalidate(tenantId, patches.keySet());
         }
+        return new BulkPatchProductsResponse().affectedRows((long) affectedRows);
     }
 
     @Override
-    @Transactional
-    public void releaseStock(String tenantId, List<OrderItemDTO> items) {
-        LOG.info("Releasing stock for {} items", items.size());
-        for (OrderItemDTO item : items) {
-            Product product = findProductById(tenantId, item.getProductId());
-            product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
+    @Transactional(Transactional.TxType.MANDATORY)
+    public Map<String, Long> reserveStock(String tenantId, List<OrderItemDTO> items) {
+        Map<String, Integer> quantities = aggregateQuantities(items);
+        LOG.info("Reserving stock for {} products", quantities.size());
+        if (quantities.isEmpty()) {
+            return Map.of();
+        }
+        Collection<StockLevel> stockLevels;
+        if (stockLedger.isEnabled(tenantId)) {
+            // The ledger tracks stock only, the prices are read before it takes the quantities
+            stockLevels = productRepository.findStockLevels(tenantId, quantities.keySet());
+            stockLedger.reserve(tenantId, quantities);
+        } else {
+            stockLevels = stockWriter.reserve(tenantId, quantities).values();
         }
+        return stockLevels.stream().collect(Collectors.toMap(StockLevel::id, StockLevel::price));
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void releaseStockInTransaction(String tenantId, List<OrderItemDTO> items) {
+        Map<String, Integer> quantities = aggregateQuantities(items);
+        LOG.info("Journaling stock release for {} products", quantities.size());
+        if (quantities.isEmpty()) {
+            return;
+        }
+        stockWriter.journalInTransaction(tenantId, quantities);
+        // Ledger counters loaded before the commit do not include these entries, they reload once it committed
+        quantities.keySet().forEach(productId -> stockLedger.evict(tenantId, productId));
     }
 
     private Product findProductById(String tenantId, String productId) {
@@ -118,6 +256,39 @@ public class ProductServiceImpl implements ProductService {
         return product;
     }
 
+    private ProductPatch toPatch(ProductBulkPatch patch) {
+        ProductPatch productPatch = patch == null
+                ? null
+                : new ProductPatch(Money.toMinor(patch.getPrice()), toStatus(patch.getStatus()), patch.getCategory());
+        if (productPatch == null || productPatch.isEmpty()) {
+            throw ApiServiceException.badRequest("A patch must set the price, status or category");
+        }
+        return productPatch;
+    }
+
+    private Product.Status toStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        try {
+            return Product.Status.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw ApiServiceException.badRequest("Invalid product status [{}]", status);
+        }
+    }
+
+    private List<FacetCount> toFacets(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .filter(count -> count.getKey() != null)
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                .map(count -> new FacetCount().value(count.getKey()).count(count.getValue()))
+                .toList();
+    }
+
+    private Map<String, Integer> aggregateQuantities(List<OrderItemDTO> items) {
+        return items.stream().collect(Collectors.toMap(OrderItemDTO::getProductId, OrderItemDTO::getQuantity, Integer::sum, LinkedHashMap::new));
+    }
+
     private void validateNewSku(String tenantId, String sku) {
         if (productRepository.countBySku(tenantId, sku) > 0) {
             throw ApiServiceException.conflict("SKU [{}] already exists", sku);
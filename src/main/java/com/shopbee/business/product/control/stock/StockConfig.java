@@ -0,0 +1,71 @@
+/*
+ * StockConfig.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.stock;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+@ConfigMapping(prefix = "shopbee.product.stock")
+public interface StockConfig {
+
+    Retry retry();
+
+    Ledger ledger();
+
+    interface Retry {
+
+        /**
+         * The maximum number of attempts of a stock write, including the first one.
+         */
+        @WithDefault("5")
+        int maxAttempts();
+
+        /**
+         * The upper bound of the delay before the first retry.
+         */
+        @WithDefault("10ms")
+        Duration initialBackoff();
+
+        /**
+         * The upper bound of the delay between two attempts.
+         */
+        @WithDefault("200ms")
+        Duration maxBackoff();
+    }
+
+    interface Ledger {
+
+        /**
+         * The tenants whose stock is reserved through the in-memory ledger. The ledger keeps its counters
+         * per instance, so it must only be enabled for tenants whose orders are served by a single instance.
+         */
+        Optional<Set<String>> tenants();
+
+        /**
+         * The maximum number of products tracked by the ledger, further products use the database directly.
+         */
+        @WithDefault("10000")
+        int maxEntries();
+
+        /**
+         * How often the journal of ledger changes is written to the products.
+         */
+        @WithDefault("1s")
+        Duration flushInterval();
+
+        /**
+         * The maximum number of journal entries written to the products per transaction.
+         */
+        @WithDefault("500")
+        int flushBatchSize();
+    }
+}
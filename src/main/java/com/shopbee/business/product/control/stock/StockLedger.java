@@ -0,0 +1,332 @@
+/*
+ * StockLedger.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.stock;
+
+import com.shopbee.business.product.control.repository.StockJournalRepository;
+import com.shopbee.common.StringFormatter;
+import com.shopbee.common.exception.ApiServiceException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory stock counters for the tenants configured in {@code shopbee.product.stock.ledger.tenants}.
+ * <p>
+ * Reservations are taken from lock-free per-product counters and recorded as journal entries, which are
+ * written to {@code shopbee_product} in batches by {@link StockLedgerFlusher}. A counter is loaded from the
+ * stored stock plus the pending journal entries the first time its product is reserved, so counters can
+ * always be rebuilt from the database.
+ * </p>
+ * <p>
+ * Reserves take from the counters in the transaction of the order and hold the read lock of their counters
+ * until that transaction completed, and an eviction takes the write lock, so a counter is only dropped once
+ * every delta taken from it is committed to the journal or given back. The locks are stamped rather than
+ * owned by a thread, as a transaction may complete on another thread. Calls that locked a dropped counter
+ * retry with the reloaded one.
+ * </p>
+ */
+@ApplicationScoped
+public class StockLedger {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StockLedger.class);
+
+    private final ConcurrentMap<Key, Counter> counters = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final StockConfig.Ledger config;
+    private final StockWriter stockWriter;
+    private final StockJournalRepository stockJournalRepository;
+    private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Inject
+    public StockLedger(StockConfig stockConfig,
+                       StockWriter stockWriter,
+                       StockJournalRepository stockJournalRepository,
+                       TransactionSynchronizationRegistry transactionSynchronizationRegistry,
+                       MeterRegistry meterRegistry) {
+        this.config = stockConfig.ledger();
+        this.stockWriter = stockWriter;
+        this.stockJournalRepository = stockJournalRepository;
+        this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+        meterRegistry.gaugeMapSize("shopbee.product.stock.ledger.entries", Tags.empty(), counters);
+    }
+
+    public boolean isEnabled(String tenantId) {
+        return config.tenants().map(tenants -> tenants.contains(tenantId)).orElse(false);
+    }
+
+    /**
+     * Takes the given quantities from stock in the transaction of the caller, all or nothing. Products the
+     * ledger cannot track are reserved in the database. The quantities are journaled in that transaction and
+     * given back to the counters if it does not commit.
+     *
+     * @param tenantId   the tenant id
+     * @param quantities the quantity to take per product id
+     * @throws jakarta.persistence.OptimisticLockException if a product reserved in the database was modified
+     *                                                     since its stock was read
+     */
+    public void reserve(String tenantId, Map<String, Integer> quantities) {
+        while (true) {
+            Map<String, Counter> tracked = counters(tenantId, quantities.keySet());
+            List<HeldCounter> held = lock(tracked);
+            if (held == null) {
+                continue;
+            }
+            try {
+                reserve(tenantId, quantities, tracked, held);
+                return;
+            } catch (RuntimeException e) {
+                unlock(held);
+                throw e;
+            }
+        }
+    }
+
+    private void reserve(String tenantId, Map<String, Integer> quantities, Map<String, Counter> tracked,
+                         List<HeldCounter> held) {
+        Map<String, Integer> ledgerQuantities = new LinkedHashMap<>();
+        Map<String, Integer> databaseQuantities = new LinkedHashMap<>();
+        quantities.forEach((productId, quantity) ->
+                (tracked.containsKey(productId) ? ledgerQuantities : databaseQuantities).put(productId, quantity));
+
+        if (!databaseQuantities.isEmpty()) {
+            stockWriter.reserve(tenantId, databaseQuantities);
+        }
+        take(ledgerQuantities, tracked);
+        try {
+            // The counters stay locked until the journal entries committed, so they are not dropped and
+            // reloaded without the quantities taken here
+            transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                    // Nothing to do before completion
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    try {
+                        if (status != Status.STATUS_COMMITTED) {
+                            give(ledgerQuantities, tracked);
+                        }
+                    } finally {
+                        unlock(held);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            give(ledgerQuantities, tracked);
+            throw e;
+        }
+        stockWriter.journalInTransaction(tenantId, negate(ledgerQuantities));
+    }
+
+    /**
+     * Drops the counter of a product whose stock was written without the ledger, it is reloaded on next use.
+     * Pending journal entries still apply on top of the written stock. Inside a transaction the counter is
+     * dropped after it completed, so that a reload cannot read the stock before the write committed. The drop
+     * waits for the reserves holding the counter, so a transaction must not reserve a product it evicts.
+     *
+     * @param tenantId  the tenant id
+     * @param productId the product id
+     */
+    public void evict(String tenantId, String productId) {
+        Key key = new Key(tenantId, productId);
+        if (transactionSynchronizationRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            drop(key);
+            return;
+        }
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+                // Nothing to do before completion
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                drop(key);
+            }
+        });
+    }
+
+    private void drop(Key key) {
+        // Counted before the removal, so a load that read the stock earlier sees it and is not kept
+        evictions.incrementAndGet();
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            return;
+        }
+        long stamp = counter.lock().writeLock();
+        try {
+            counter.retire();
+            counters.remove(key, counter);
+        } finally {
+            counter.lock().unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Read locks the counters in product id order, so that evictions waiting for one of them cannot deadlock.
+     *
+     * @return the locked counters, or {@code null} if one of them was dropped and the call has to load them again
+     */
+    private List<HeldCounter> lock(Map<String, Counter> tracked) {
+        List<HeldCounter> held = new ArrayList<>();
+        List<Map.Entry<String, Counter>> entries = new ArrayList<>(tracked.entrySet());
+        entries.sort(Map.Entry.comparingByKey(Comparator.naturalOrder()));
+        for (Map.Entry<String, Counter> entry : entries) {
+            Counter counter = entry.getValue();
+            held.add(new HeldCounter(counter, counter.lock().readLock()));
+            if (counter.isRetired()) {
+                unlock(held);
+                return null;
+            }
+        }
+        return held;
+    }
+
+    private static void unlock(List<HeldCounter> held) {
+        held.forEach(counter -> counter.counter().lock().unlockRead(counter.stamp()));
+    }
+
+    private Map<String, Counter> counters(String tenantId, Set<String> productIds) {
+        Map<String, Counter> tracked = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String productId : productIds) {
+            Counter counter = counters.get(new Key(tenantId, productId));
+            if (counter != null) {
+                tracked.put(productId, counter);
+            } else {
+                missing.add(productId);
+            }
+        }
+        if (missing.isEmpty() || counters.size() >= config.maxEntries()) {
+            return tracked;
+        }
+
+        long evictionsBefore = evictions.get();
+        List<Key> loadedKeys = new ArrayList<>();
+        for (Object[] row : stockJournalRepository.findLedgerStock(tenantId, missing)) {
+            if (counters.size() >= config.maxEntries()) {
+                LOG.warn("Stock ledger is full with {} products", counters.size());
+                break;
+            }
+            String productId = (String) row[0];
+            Counter loaded = new Counter((String) row[1], new AtomicLong(((Number) row[2]).longValue()));
+            // A concurrent load of the same product read the same stock, whichever got in first is kept
+            Key key = new Key(tenantId, productId);
+            Counter counter = counters.putIfAbsent(key, loaded);
+            if (counter == null) {
+                loadedKeys.add(key);
+            }
+            tracked.put(productId, counter == null ? loaded : counter);
+        }
+        if (evictions.get() != evictionsBefore) {
+            // A stock write committed while the stock was read, the loaded counters may miss it
+            loadedKeys.forEach(this::drop);
+        }
+        return tracked;
+    }
+
+    private void take(Map<String, Integer> quantities, Map<String, Counter> tracked) {
+        Map<String, Integer> taken = new HashMap<>();
+        List<String> shortages = new ArrayList<>();
+        for (Map.Entry<String, Integer> item : quantities.entrySet()) {
+            Counter counter = tracked.get(item.getKey());
+            if (shortages.isEmpty() && counter.tryTake(item.getValue())) {
+                taken.put(item.getKey(), item.getValue());
+            } else if (shortages.isEmpty() || counter.available().get() < item.getValue()) {
+                // Once a product is short the others are only checked, so all shortages are reported at once
+                shortages.add(StringFormatter.format("{} (requested: {}, available: {})",
+                        counter.sku(), item.getValue(), counter.available().get()));
+            }
+        }
+        if (!shortages.isEmpty()) {
+            give(taken, tracked);
+            throw ApiServiceException.conflict("Not enough stock for products {}", shortages);
+        }
+    }
+
+    private void give(Map<String, Integer> quantities, Map<String, Counter> tracked) {
+        quantities.forEach((productId, quantity) -> tracked.get(productId).available().addAndGet(quantity));
+    }
+
+    private static Map<String, Integer> negate(Map<String, Integer> quantities) {
+        Map<String, Integer> deltas = new LinkedHashMap<>();
+        quantities.forEach((productId, quantity) -> deltas.put(productId, -quantity));
+        return deltas;
+    }
+
+    private record Key(String tenantId, String productId) {
+    }
+
+    private record HeldCounter(Counter counter, long stamp) {
+    }
+
+    private static final class Counter {
+
+        private final String sku;
+        private final AtomicLong available;
+        private final StampedLock lock = new StampedLock();
+        private volatile boolean retired;
+
+        private Counter(String sku, AtomicLong available) {
+            this.sku = sku;
+            this.available = available;
+        }
+
+        String sku() {
+            return sku;
+        }
+
+        AtomicLong available() {
+            return available;
+        }
+
+        StampedLock lock() {
+            return lock;
+        }
+
+        void retire() {
+            retired = true;
+        }
+
+        boolean isRetired() {
+            return retired;
+        }
+
+        boolean tryTake(int quantity) {
+            while (true) {
+                long current = available.get();
+                if (current < quantity) {
+                    return false;
+                }
+                if (available.compareAndSet(current, current - quantity)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
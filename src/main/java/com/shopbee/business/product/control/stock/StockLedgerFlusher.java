@@ -0,0 +1,63 @@
+/*
+ * StockLedgerFlusher.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.stock;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the stock ledger journal behind to the products. Pending entries are replayed at startup, before
+ * any ledger counter is loaded, and written out once more on shutdown.
+ */
+@ApplicationScoped
+public class StockLedgerFlusher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StockLedgerFlusher.class);
+
+    private final StockConfig.Ledger config;
+    private final StockWriter stockWriter;
+
+    @Inject
+    public StockLedgerFlusher(StockConfig stockConfig, StockWriter stockWriter) {
+        this.config = stockConfig.ledger();
+        this.stockWriter = stockWriter;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        int replayed = flushAll();
+        if (replayed > 0) {
+            LOG.info("Replayed {} pending stock journal entries", replayed);
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        flushAll();
+    }
+
+    @Scheduled(every = "${shopbee.product.stock.ledger.flush-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void flush() {
+        flushAll();
+    }
+
+    private int flushAll() {
+        int batchSize = Math.max(1, config.flushBatchSize());
+        int total = 0;
+        int flushed;
+        do {
+            flushed = stockWriter.flushJournal(batchSize);
+            total += flushed;
+        } while (flushed == batchSize);
+        return total;
+    }
+}
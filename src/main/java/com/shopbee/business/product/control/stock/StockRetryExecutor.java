@@ -0,0 +1,88 @@
+/*
+ * StockRetryExecutor.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.stock;
+
+import com.shopbee.common.exception.ApiServiceException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.StaleStateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs stock writes and retries them with a bounded, jittered exponential backoff when they lose an
+ * optimistic lock race. Every attempt must run in its own transaction.
+ */
+@ApplicationScoped
+public class StockRetryExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StockRetryExecutor.class);
+
+    private final StockConfig.Retry config;
+    private final MeterRegistry meterRegistry;
+
+    @Inject
+    public StockRetryExecutor(StockConfig stockConfig, MeterRegistry meterRegistry) {
+        this.config = stockConfig.retry();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void execute(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        int maxAttempts = Math.max(1, config.maxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (RuntimeException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                meterRegistry.counter("shopbee.product.stock.conflicts", "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    LOG.warn("Stock {} still conflicting after {} attempts", operation, attempt);
+                    meterRegistry.counter("shopbee.product.stock.retries.exhausted", "operation", operation).increment();
+                    throw ApiServiceException.conflict("Stock is being updated concurrently, please try again");
+                }
+                LOG.debug("Stock {} conflicted on attempt {}, retrying", operation, attempt);
+                meterRegistry.counter("shopbee.product.stock.retries", "operation", operation).increment();
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        long ceiling = Math.min(config.maxBackoff().toMillis(), config.initialBackoff().toMillis() << Math.min(attempt - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ApiServiceException.unavailable("Interrupted while waiting to retry the stock update");
+        }
+    }
+
+    private static boolean isConflict(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
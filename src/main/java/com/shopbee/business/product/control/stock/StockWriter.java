@@ -0,0 +1,149 @@
+/*
+ * StockWriter.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.product.control.stock;
+
+import com.shopbee.business.product.control.cache.ProductCache;
+import com.shopbee.business.product.control.repository.ProductRepository;
+import com.shopbee.business.product.control.repository.StockJournalRepository;
+import com.shopbee.business.product.control.repository.StockLevel;
+import com.shopbee.business.product.entity.StockJournalEntry;
+import com.shopbee.common.StringFormatter;
+import com.shopbee.common.exception.ApiServiceException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies stock changes. Reservations and journal entries are written in the transaction of the caller, so
+ * they commit or roll back with the order that takes or gives back the stock. The journal is flushed in
+ * short transactions of their own.
+ */
+@ApplicationScoped
+public class StockWriter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StockWriter.class);
+
+    private final ProductRepository productRepository;
+    private final StockJournalRepository stockJournalRepository;
+    private final ProductCache productCache;
+
+    @Inject
+    public StockWriter(ProductRepository productRepository,
+                       StockJournalRepository stockJournalRepository,
+                       ProductCache productCache) {
+        this.productRepository = productRepository;
+        this.stockJournalRepository = stockJournalRepository;
+        this.productCache = productCache;
+    }
+
+    /**
+     * Takes the given quantities from stock in the transaction of the caller, all or nothing. The product rows
+     * stay locked until that transaction completes.
+     *
+     * @param tenantId   the tenant id
+     * @param quantities the quantity to take per product id
+     * @return the stock levels and prices of the products as read before taking the quantities
+     * @throws OptimisticLockException if a product was modified since its stock was read, the caller retries
+     *                                 its whole transaction with fresh stock levels
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public Map<String, StockLevel> reserve(String tenantId, Map<String, Integer> quantities) {
+        Map<String, StockLevel> stockLevels = findStockLevels(tenantId, quantities);
+        validateStock(quantities, stockLevels);
+
+        Map<String, Long> versions = stockLevels.values().stream()
+                .collect(Collectors.toMap(StockLevel::id, StockLevel::version));
+        int reserved = productRepository.decrementStock(tenantId, quantities, versions);
+        if (reserved != quantities.size()) {
+            // Rolls back the transaction with the products that were decremented
+            throw new OptimisticLockException(StringFormatter.format("Stock of {} of {} products changed concurrently",
+                    quantities.size() - reserved, quantities.size()));
+        }
+        productCache.invalidate(tenantId, quantities.keySet());
+        return stockLevels;
+    }
+
+    /**
+     * Records stock changes in the transaction of the caller, they are written to the products by
+     * {@link #flushJournal(int)} only if that transaction commits.
+     *
+     * @param tenantId the tenant id
+     * @param deltas   the signed stock change per product id
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void journalInTransaction(String tenantId, Map<String, Integer> deltas) {
+        List<StockJournalEntry> entries = deltas.entrySet().stream().map(delta -> {
+            StockJournalEntry entry = new StockJournalEntry();
+            entry.setTenantId(tenantId);
+            entry.setProductId(delta.getKey());
+            entry.setDelta(delta.getValue());
+            return entry;
+        }).toList();
+        stockJournalRepository.persist(entries);
+    }
+
+    /**
+     * Writes the oldest journal entries to their products, one bulk update per tenant, and removes them.
+     *
+     * @param batchSize the maximum number of entries to write
+     * @return the number of entries written
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public int flushJournal(int batchSize) {
+        List<StockJournalEntry> entries = stockJournalRepository.lockOldest(batchSize);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Map<String, Integer>> deltasByTenant = new HashMap<>();
+        for (StockJournalEntry entry : entries) {
+            deltasByTenant.computeIfAbsent(entry.getTenantId(), tenantId -> new HashMap<>())
+                    .merge(entry.getProductId(), entry.getDelta(), Integer::sum);
+        }
+        deltasByTenant.forEach((tenantId, deltas) -> {
+            productRepository.incrementStock(tenantId, deltas);
+            productCache.invalidate(tenantId, deltas.keySet());
+        });
+        stockJournalRepository.deleteByIds(entries.stream().map(StockJournalEntry::getId).toList());
+
+        LOG.debug("Flushed {} stock journal entries of {} tenants", entries.size(), deltasByTenant.size());
+        return entries.size();
+    }
+
+    private Map<String, StockLevel> findStockLevels(String tenantId, Map<String, Integer> quantities) {
+        Map<String, StockLevel> stockLevels = productRepository.findStockLevels(tenantId, quantities.keySet()).stream()
+                .collect(Collectors.toMap(StockLevel::id, Function.identity()));
+        for (String productId : quantities.keySet()) {
+            if (!stockLevels.containsKey(productId)) {
+                LOG.warn("Product [{}] not found", productId);
+                throw ApiServiceException.notFound("Product [{}] not found", productId);
+            }
+        }
+        return stockLevels;
+    }
+
+    private void validateStock(Map<String, Integer> quantities, Map<String, StockLevel> stockLevels) {
+        List<String> shortages = quantities.entrySet().stream()
+                .filter(item -> stockLevels.get(item.getKey()).available() < item.getValue())
+                .map(item -> StringFormatter.format("{} (requested: {}, available: {})",
+                        stockLevels.get(item.getKey()).sku(), item.getValue(), stockLevels.get(item.getKey()).available()))
+                .toList();
+        if (!shortages.isEmpty()) {
+            throw ApiServiceException.conflict("Not enough stock for products {}", shortages);
+        }
+    }
+}
@@ -10,6 +10,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -29,8 +30,9 @@ public class Product extends AbstractEntity {
     @Column
     private String description;
 
+    // In minor units, see Money
     @Column(nullable = false)
-    private Float price;
+    private Long price;
 
     @Column(nullable = false, unique = true)
     private String sku;
@@ -48,6 +50,10 @@ public class Product extends AbstractEntity {
     @Enumerated(EnumType.STRING)
     private Status status;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(name = "created_at", updatable = false)
     @CreationTimestamp
     private OffsetDateTime createdAt;
@@ -80,11 +86,11 @@ public class Product extends AbstractEntity {
         this.description = description;
     }
 
-    public Float getPrice() {
+    public Long getPrice() {
         return price;
     }
 
-    public void setPrice(Float price) {
+    public void setPrice(Long price) {
         this.price = price;
     }
 
@@ -128,6 +134,14 @@ public class Product extends AbstractEntity {
         this.status = status;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public OffsetDateTime getCreatedAt() {
         return createdAt;
     }
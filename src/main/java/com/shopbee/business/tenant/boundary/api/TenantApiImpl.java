@@ -7,34 +7,58 @@
 
 package com.shopbee.business.tenant.boundary.api;
 
+import com.shopbee.business.tenant.control.service.TenantService;
 import com.shopbee.tenant.boundary.api.TenantsApi;
 import com.shopbee.tenant.model.CreateTenantRequest;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 
+import java.net.URI;
+
+/**
+ * Manages the tenants of the platform, only for platform administrators since every tenant is visible here.
+ */
+@RolesAllowed(TenantApiImpl.PLATFORM_ADMIN_ROLE)
 public class TenantApiImpl implements TenantsApi {
 
+    static final String PLATFORM_ADMIN_ROLE = "platform-admin";
+
+    private final TenantService tenantService;
+    private final UriInfo uriInfo;
+
+    @Inject
+    public TenantApiImpl(TenantService tenantService, UriInfo uriInfo) {
+        this.tenantService = tenantService;
+        this.uriInfo = uriInfo;
+    }
+
     @Override
     public Response getTenants() {
-        return Response.status(Response.Status.NOT_IMPLEMENTED).build();
+        return Response.ok(tenantService.getTenants()).build();
     }
 
     @Override
     public Response getTenantById(String tenantId) {
-        return Response.status(Response.Status.NOT_IMPLEMENTED).build();
+        return Response.ok(tenantService.getTenantById(tenantId)).build();
     }
 
     @Override
     public Response createTenant(CreateTenantRequest createTenantRequest) {
-        return Response.status(Response.Status.NOT_IMPLEMENTED).build();
+        var tenant = tenantService.createTenant(createTenantRequest);
+        URI location = uriInfo.getAbsolutePathBuilder().path(tenant.getId()).build();
+        return Response.created(location).entity(tenant).build();
     }
 
     @Override
     public Response updateTenantById(String tenantId, CreateTenantRequest createTenantRequest) {
-        return Response.status(Response.Status.NOT_IMPLEMENTED).build();
+        return Response.ok(tenantService.updateTenantById(tenantId, createTenantRequest)).build();
     }
 
     @Override
     public Response deleteTenantById(String tenantId) {
-        return Response.status(Response.Status.NOT_IMPLEMENTED).build();
+        tenantService.deleteTenantById(tenantId);
+        return Response.noContent().build();
     }
 }
@@ -0,0 +1,23 @@
+/*
+ * CatalogueConfig.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.tenant.control.catalogue;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+@ConfigMapping(prefix = "shopbee.tenant.catalogue")
+public interface CatalogueConfig {
+
+    /**
+     * How often the catalogue is reloaded from the database, to pick up tenant writes of other instances.
+     */
+    @WithDefault("1m")
+    Duration reloadInterval();
+}
@@ -0,0 +1,116 @@
+/*
+ * TenantCatalogue.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.tenant.control.catalogue;
+
+import com.shopbee.business.tenant.control.repository.TenantRepository;
+import com.shopbee.business.tenant.entity.Tenant;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * All tenants by name, read without locks from an immutable snapshot.
+ * <p>
+ * The snapshot is loaded at startup and reloaded on an interval, tenant writes replace it with a copy that
+ * holds the written tenant once their transaction committed. The tenants in a snapshot are detached and
+ * never changed after they were published, writes put new instances instead.
+ * </p>
+ */
+@ApplicationScoped
+public class TenantCatalogue {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TenantCatalogue.class);
+
+    private final AtomicReference<Map<String, Tenant>> snapshot = new AtomicReference<>(Map.of());
+
+    private final TenantRepository tenantRepository;
+
+    @Inject
+    public TenantCatalogue(TenantRepository tenantRepository) {
+        this.tenantRepository = tenantRepository;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        reload();
+        LOG.info("Loaded {} tenants", snapshot.get().size());
+    }
+
+    @Scheduled(every = "${shopbee.tenant.catalogue.reload-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void reload() {
+        Map<String, Tenant> before = snapshot.get();
+        List<Tenant> tenants = QuarkusTransaction.requiringNew().call(() -> tenantRepository.listAll(Sort.by("name")));
+        Map<String, Tenant> loaded = new LinkedHashMap<>();
+        tenants.forEach(tenant -> loaded.put(tenant.getName(), tenant));
+        // A write published while the tenants were read is kept, the next reload reads it back
+        if (!snapshot.compareAndSet(before, Collections.unmodifiableMap(loaded))) {
+            LOG.debug("Tenant catalogue changed while reloading, keeping the newer snapshot");
+        }
+    }
+
+    /**
+     * Finds a tenant by name.
+     *
+     * @param name the tenant name
+     * @return the tenant, or {@code null} if the catalogue does not hold it
+     */
+    public Tenant find(String name) {
+        return snapshot.get().get(name);
+    }
+
+    /**
+     * Returns all tenants.
+     *
+     * @return the tenants, ordered by name
+     */
+    public Collection<Tenant> findAll() {
+        return snapshot.get().values();
+    }
+
+    /**
+     * Publishes a created or changed tenant, to be called once the write committed.
+     *
+     * @param tenant the tenant, not changed afterwards
+     */
+    public void put(Tenant tenant) {
+        snapshot.updateAndGet(current -> {
+            Map<String, Tenant> next = new TreeMap<>(current);
+            next.put(tenant.getName(), tenant);
+            return Collections.unmodifiableMap(new LinkedHashMap<>(next));
+        });
+    }
+
+    /**
+     * Removes a deleted tenant, to be called once the delete committed.
+     *
+     * @param name the tenant name
+     */
+    public void remove(String name) {
+        snapshot.updateAndGet(current -> {
+            if (!current.containsKey(name)) {
+                return current;
+            }
+            Map<String, Tenant> next = new LinkedHashMap<>(current);
+            next.remove(name);
+            return Collections.unmodifiableMap(next);
+        });
+    }
+}
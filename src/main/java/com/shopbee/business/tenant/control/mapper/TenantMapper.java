@@ -0,0 +1,26 @@
+package com.shopbee.business.tenant.control.mapper;
+
+import com.shopbee.business.tenant.entity.Tenant;
+import com.shopbee.tenant.model.TenantDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The tenant id of the API is the tenant name, which is what requests send in their {@code tenantId}
+ * header, and also the subdomain of the tenant.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.CDI, unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface TenantMapper {
+
+    @Mapping(target = "id", source = "name")
+    @Mapping(target = "subdomain", source = "name")
+    @Mapping(target = "name", source = "displayName")
+    TenantDTO toTenantDTO(Tenant tenant);
+
+    List<TenantDTO> toTenants(Collection<Tenant> tenants);
+}
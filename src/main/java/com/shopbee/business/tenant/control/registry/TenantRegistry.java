@@ -0,0 +1,183 @@
+/*
+ * TenantRegistry.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.tenant.control.registry;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.shopbee.business.tenant.control.catalogue.TenantCatalogue;
+import com.shopbee.business.tenant.control.repository.TenantRepository;
+import com.shopbee.business.tenant.entity.Tenant;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.oidc.OidcTenantConfig;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Holds the tenants by name and the OIDC configs built for them.
+ * <p>
+ * Tenants are taken from the {@link TenantCatalogue}, only names it does not hold yet are looked up in the
+ * database, for tenants created on another instance since the catalogue was last reloaded.
+ * </p>
+ * <p>
+ * Tenants are reloaded in the background once they are older than the refresh interval and used again,
+ * the OIDC config of a tenant is dropped when its reload finds it changed, inactive or gone. Unknown names
+ * are remembered for a short time so that requests with made up tenant names do not each query the
+ * database. Tenant writes call {@link #invalidate(String)} to be seen right away on this instance.
+ * </p>
+ */
+@ApplicationScoped
+public class TenantRegistry {
+
+    public static final String TENANTS = "tenants";
+    public static final String OIDC_CONFIGS = "tenant-oidc-configs";
+    public static final String UNKNOWN_TENANTS = "unknown-tenants";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TenantRegistry.class);
+
+    private final TenantCatalogue tenantCatalogue;
+    private final TenantRepository tenantRepository;
+    private final LoadingCache<String, Tenant> tenants;
+    private final Cache<String, OidcTenantConfig> oidcConfigs;
+    private final Cache<String, Boolean> unknownTenants;
+
+    @Inject
+    public TenantRegistry(TenantCatalogue tenantCatalogue,
+                          TenantRepository tenantRepository,
+                          TenantRegistryConfig config,
+                          MeterRegistry meterRegistry) {
+        this.tenantCatalogue = tenantCatalogue;
+        this.tenantRepository = tenantRepository;
+        this.oidcConfigs = Caffeine.newBuilder()
+                .maximumSize(config.maximumSize())
+                .recordStats()
+                .build();
+        this.unknownTenants = Caffeine.newBuilder()
+                .maximumSize(config.unknownMaximumSize())
+                .expireAfterWrite(config.unknownExpireAfterWrite())
+                .recordStats()
+                .build();
+        this.tenants = Caffeine.newBuilder()
+                .maximumSize(config.maximumSize())
+                .refreshAfterWrite(config.refreshAfterWrite())
+                .expireAfterWrite(config.expireAfterWrite())
+                .executor(Infrastructure.getDefaultWorkerPool())
+                .removalListener((String name, Tenant tenant, RemovalCause cause) -> {
+                    if (name != null && cause != RemovalCause.REPLACED) {
+                        oidcConfigs.invalidate(name);
+                    }
+                })
+                .recordStats()
+                .build(new TenantLoader());
+        CaffeineCacheMetrics.monitor(meterRegistry, tenants, TENANTS);
+        CaffeineCacheMetrics.monitor(meterRegistry, oidcConfigs, OIDC_CONFIGS);
+        CaffeineCacheMetrics.monitor(meterRegistry, unknownTenants, UNKNOWN_TENANTS);
+    }
+
+    /**
+     * Finds a tenant by name, loading it from the database if it is not held. Blocks on a load, so it is
+     * called from a worker thread.
+     *
+     * @param name the tenant name
+     * @return the tenant, or {@code null} if there is no tenant with the name
+     */
+    public Tenant find(String name) {
+        if (unknownTenants.getIfPresent(name) != null) {
+            return null;
+        }
+        Tenant tenant = tenants.get(name);
+        if (tenant == null) {
+            unknownTenants.put(name, Boolean.TRUE);
+        }
+        return tenant;
+    }
+
+    /**
+     * Returns the OIDC config of a tenant without blocking.
+     *
+     * @param name the tenant name
+     * @return the OIDC config built before, or {@code null} if the tenant must be looked up with {@link #find(String)}
+     */
+    public OidcTenantConfig findOidcConfig(String name) {
+        // Reading the tenant schedules its reload when due, which drops the config if the tenant changed
+        if (tenants.getIfPresent(name) == null) {
+            return null;
+        }
+        return oidcConfigs.getIfPresent(name);
+    }
+
+    /**
+     * Tells if a tenant name is known not to exist, without blocking.
+     *
+     * @param name the tenant name
+     * @return {@code true} if the name was looked up recently and no tenant was found
+     */
+    public boolean isUnknown(String name) {
+        return unknownTenants.getIfPresent(name) != null;
+    }
+
+    /**
+     * Returns the OIDC config of an active tenant, building it once.
+     *
+     * @param tenant the tenant, as returned by {@link #find(String)}
+     * @param build  builds the OIDC config of the tenant
+     * @return the OIDC config
+     */
+    public OidcTenantConfig oidcConfig(Tenant tenant, Function<Tenant, OidcTenantConfig> build) {
+        return oidcConfigs.get(tenant.getName(), name -> build.apply(tenant));
+    }
+
+    /**
+     * Drops a tenant and its OIDC config, to be called when a tenant is created, changed or deleted.
+     *
+     * @param name the tenant name
+     */
+    public void invalidate(String name) {
+        tenants.invalidate(name);
+        oidcConfigs.invalidate(name);
+        unknownTenants.invalidate(name);
+    }
+
+    /**
+     * FOR TESTING PURPOSES ONLY.
+     *
+     * @return a view of the OIDC configs by tenant name
+     */
+    public Map<String, OidcTenantConfig> oidcConfigsForTesting() {
+        return oidcConfigs.asMap();
+    }
+
+    private class TenantLoader implements CacheLoader<String, Tenant> {
+
+        @Override
+        public Tenant load(String name) {
+            Tenant tenant = tenantCatalogue.find(name);
+            return tenant != null ? tenant : tenantRepository.findByName(name);
+        }
+
+        @Override
+        public Tenant reload(String name, Tenant previous) {
+            Tenant tenant = load(name);
+            if (tenant == null || tenant.getStatus() != previous.getStatus() || !Objects.equals(tenant.getAuthUrl(), previous.getAuthUrl())) {
+                LOG.debug("Tenant {} changed, dropping its OIDC config", name);
+                oidcConfigs.invalidate(name);
+            }
+            return tenant;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * TenantRegistryConfig.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.business.tenant.control.registry;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+@ConfigMapping(prefix = "shopbee.tenant.registry")
+public interface TenantRegistryConfig {
+
+    /**
+     * The maximum number of tenants held, and of OIDC configs built for them.
+     */
+    @WithDefault("10000")
+    int maximumSize();
+
+    /**
+     * How long after loading a tenant it is reloaded in the background on its next use.
+     */
+    @WithDefault("1m")
+    Duration refreshAfterWrite();
+
+    /**
+     * How long after loading a tenant it is dropped, when it was not reloaded in the meantime.
+     */
+    @WithDefault("10m")
+    Duration expireAfterWrite();
+
+    /**
+     * The maximum number of unknown tenant names remembered.
+     */
+    @WithDefault("10000")
+    int unknownMaximumSize();
+
+    /**
+     * How long an unknown tenant name is answered without asking the database again.
+     */
+    @WithDefault("30s")
+    Duration unknownExpireAfterWrite();
+}
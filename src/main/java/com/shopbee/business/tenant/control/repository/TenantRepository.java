@@ -8,20 +8,21 @@
 package com.shopbee.business.tenant.control.repository;
 
 import com.shopbee.business.tenant.entity.Tenant;
-import io.quarkus.cache.CacheResult;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
 
 @ApplicationScoped
 public class TenantRepository implements PanacheRepositoryBase<Tenant, String> {
 
     /**
-     * Find by name tenant.
+     * Find by name tenant. Callable from worker threads without a request context, such as the reloads
+     * of the {@code TenantRegistry}.
      *
      * @param name the name
      * @return the tenant
      */
-    @CacheResult(cacheName = "tenants")
+    @ActivateRequestContext
     public Tenant findByName(String name) {
         return find("name", name).firstResult();
     }
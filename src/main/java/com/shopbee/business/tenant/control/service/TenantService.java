@@ -0,0 +1,19 @@
+package com.shopbee.business.tenant.control.service;
+
+import com.shopbee.tenant.model.CreateTenantRequest;
+import com.shopbee.tenant.model.TenantDTO;
+
+import java.util.List;
+
+public interface TenantService {
+
+    List<TenantDTO> getTenants();
+
+    TenantDTO getTenantById(String tenantId);
+
+    TenantDTO createTenant(CreateTenantRequest createTenantRequest);
+
+    TenantDTO updateTenantById(String tenantId, CreateTenantRequest createTenantRequest);
+
+    void deleteTenantById(String tenantId);
+}
@@ -0,0 +1,135 @@
+package com.shopbee.business.tenant.control.service.impl;
+
+import com.shopbee.business.tenant.control.catalogue.TenantCatalogue;
+import com.shopbee.business.tenant.control.mapper.TenantMapper;
+import com.shopbee.business.tenant.control.registry.TenantRegistry;
+import com.shopbee.business.tenant.control.repository.TenantRepository;
+import com.shopbee.business.tenant.control.service.TenantService;
+import com.shopbee.business.tenant.entity.Tenant;
+import com.shopbee.common.exception.ApiServiceException;
+import com.shopbee.tenant.model.CreateTenantRequest;
+import com.shopbee.tenant.model.TenantDTO;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Reads tenants from the {@link TenantCatalogue} only. Writes go to the database first and are published to
+ * the catalogue and the {@link TenantRegistry} after they committed.
+ */
+@ApplicationScoped
+public class TenantServiceImpl implements TenantService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TenantServiceImpl.class);
+    private static final Pattern SUBDOMAIN_PATTERN = Pattern.compile("^[a-zA-Z0-9_-]+$");
+
+    private final TenantRepository tenantRepository;
+    private final TenantCatalogue tenantCatalogue;
+    private final TenantRegistry tenantRegistry;
+    private final TenantMapper tenantMapper;
+
+    @Inject
+    public TenantServiceImpl(TenantRepository tenantRepository,
+                             TenantCatalogue tenantCatalogue,
+                             TenantRegistry tenantRegistry,
+                             TenantMapper tenantMapper) {
+        this.tenantRepository = tenantRepository;
+        this.tenantCatalogue = tenantCatalogue;
+        this.tenantRegistry = tenantRegistry;
+        this.tenantMapper = tenantMapper;
+    }
+
+    @Override
+    public List<TenantDTO> getTenants() {
+        return tenantMapper.toTenants(tenantCatalogue.findAll());
+    }
+
+    @Override
+    public TenantDTO getTenantById(String tenantId) {
+        return tenantMapper.toTenantDTO(getTenant(tenantId));
+    }
+
+    @Override
+    public TenantDTO createTenant(CreateTenantRequest createTenantRequest) {
+        String name = createTenantRequest.getSubdomain();
+        if (!SUBDOMAIN_PATTERN.matcher(name).matches()) {
+            throw ApiServiceException.badRequest("Subdomain [{}] may only contain letters, digits, '_' and '-'", name);
+        }
+        if (tenantCatalogue.find(name) != null) {
+            throw ApiServiceException.conflict("Tenant [{}] already exists", name);
+        }
+
+        LOG.info("Creating tenant [{}]", name);
+        Tenant tenant = QuarkusTransaction.requiringNew().call(() -> {
+            if (tenantRepository.findByName(name) != null) {
+                throw ApiServiceException.conflict("Tenant [{}] already exists", name);
+            }
+            OffsetDateTime now = OffsetDateTime.now();
+            Tenant created = new Tenant();
+            created.setName(name);
+            created.setDisplayName(createTenantRequest.getName());
+            created.setAdminEmail(createTenantRequest.getAdminEmail());
+            created.setRequestsPerSecond(createTenantRequest.getRequestsPerSecond());
+            created.setMaxInFlightRequests(createTenantRequest.getMaxInFlightRequests());
+            created.setStatus(Tenant.Status.ACTIVE);
+            created.setCreatedAt(now);
+            created.setUpdatedAt(now);
+            tenantRepository.persist(created);
+            return created;
+        });
+        publish(tenant);
+        return tenantMapper.toTenantDTO(tenant);
+    }
+
+    @Override
+    public TenantDTO updateTenantById(String tenantId, CreateTenantRequest createTenantRequest) {
+        if (!tenantId.equals(createTenantRequest.getSubdomain())) {
+            throw ApiServiceException.badRequest("Subdomain of tenant [{}] cannot be changed", tenantId);
+        }
+        Tenant current = getTenant(tenantId);
+
+        LOG.info("Updating tenant [{}]", tenantId);
+        Tenant tenant = QuarkusTransaction.requiringNew().call(() -> {
+            Tenant updated = tenantRepository.findById(current.getId());
+            if (updated == null) {
+                throw ApiServiceException.notFound("Tenant [{}] not found", tenantId);
+            }
+            updated.setDisplayName(createTenantRequest.getName());
+            updated.setAdminEmail(createTenantRequest.getAdminEmail());
+            updated.setRequestsPerSecond(createTenantRequest.getRequestsPerSecond());
+            updated.setMaxInFlightRequests(createTenantRequest.getMaxInFlightRequests());
+            updated.setUpdatedAt(OffsetDateTime.now());
+            return updated;
+        });
+        publish(tenant);
+        return tenantMapper.toTenantDTO(tenant);
+    }
+
+    @Override
+    public void deleteTenantById(String tenantId) {
+        LOG.info("Deleting tenant [{}]", tenantId);
+        getTenant(tenantId);
+        QuarkusTransaction.requiringNew().run(() -> tenantRepository.delete("name", tenantId));
+        tenantCatalogue.remove(tenantId);
+        tenantRegistry.invalidate(tenantId);
+    }
+
+    private Tenant getTenant(String tenantId) {
+        Tenant tenant = tenantCatalogue.find(tenantId);
+        if (tenant == null) {
+            throw ApiServiceException.notFound("Tenant [{}] not found", tenantId);
+        }
+        return tenant;
+    }
+
+    private void publish(Tenant tenant) {
+        tenantCatalogue.put(tenant);
+        tenantRegistry.invalidate(tenant.getName());
+    }
+}
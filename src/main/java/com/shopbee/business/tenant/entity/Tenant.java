@@ -29,6 +29,18 @@ public class Tenant {
 
     private String name;
 
+    @Column(name = "display_name")
+    private String displayName;
+
+    @Column(name = "admin_email")
+    private String adminEmail;
+
+    @Column(name = "requests_per_second")
+    private Integer requestsPerSecond;
+
+    @Column(name = "max_in_flight_requests")
+    private Integer maxInFlightRequests;
+
     @Enumerated(EnumType.STRING)
     private Status status;
 
@@ -63,6 +75,38 @@ public class Tenant {
         this.name = name;
     }
 
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public void setDisplayName(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getAdminEmail() {
+        return adminEmail;
+    }
+
+    public void setAdminEmail(String adminEmail) {
+        this.adminEmail = adminEmail;
+    }
+
+    public Integer getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(Integer requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public Integer getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    public void setMaxInFlightRequests(Integer maxInFlightRequests) {
+        this.maxInFlightRequests = maxInFlightRequests;
+    }
+
     public Status getStatus() {
         return status;
     }
@@ -8,6 +8,7 @@
 package com.shopbee.business.user.boundary.api;
 
 import com.shopbee.business.user.control.service.UserService;
+import com.shopbee.common.pagination.CursorPage;
 import com.shopbee.user.boundary.api.UsersApi;
 import com.shopbee.user.model.CreateUserAddressRequest;
 import com.shopbee.user.model.CreateUserRequest;
@@ -70,8 +71,9 @@ public class UserApiImpl implements UsersApi {
     }
 
     @Override
-    public Response getUsers(String tenantId, Integer offset, Integer limit) {
-        return Response.ok(userService.getUsers(tenantId, offset, limit)).build();
+    public Response getUsers(String tenantId, Integer offset, Integer limit, String cursor) {
+        var users = userService.getUsers(tenantId, offset, limit, cursor);
+        return Response.ok(users.items()).header(CursorPage.NEXT_CURSOR_HEADER, users.nextCursor()).build();
     }
 
     @Override
@@ -7,6 +7,7 @@
 
 package com.shopbee.business.user.control.service;
 
+import com.shopbee.common.pagination.CursorPage;
 import com.shopbee.user.model.AddressDTO;
 import com.shopbee.user.model.CreateUserAddressRequest;
 import com.shopbee.user.model.CreateUserRequest;
@@ -23,14 +24,16 @@ import java.util.List;
 public interface UserService {
 
     /**
-     * Retrieves a list of users with pagination.
+     * Retrieves a list of users with pagination. When a cursor is given the page following it is returned
+     * and the offset is ignored.
      *
      * @param tenantId the tenant id
      * @param offset   the starting point of the list
      * @param limit    the maximum number of users to return
-     * @return a list of users
+     * @param cursor   the cursor returned with the previous page, may be {@code null}
+     * @return a page of users and the cursor of the next page
      */
-    List<UserDTO> getUsers(String tenantId, Integer offset, Integer limit);
+    CursorPage<UserDTO> getUsers(String tenantId, Integer offset, Integer limit, String cursor);
 
     /**
      * Retrieves a user by their ID.
@@ -7,7 +7,10 @@
 
 package com.shopbee.business.user.control.service.impl;
 
+import com.shopbee.common.bulkhead.TenantBulkhead;
 import com.shopbee.common.exception.ApiServiceException;
+import com.shopbee.common.pagination.CursorPage;
+import com.shopbee.common.pagination.PageCursor;
 import com.shopbee.business.user.control.mapper.AddressMapper;
 import com.shopbee.business.user.control.mapper.UserMapper;
 import com.shopbee.business.user.control.repository.AddressRepository;
@@ -34,6 +37,7 @@ import java.util.List;
 import java.util.Optional;
 
 @ApplicationScoped
+@TenantBulkhead
 public class UserServiceImpl implements UserService {
 
     private static final Logger LOG = LoggerFactory.getLogger(UserServiceImpl.class);
@@ -62,15 +66,19 @@ public class UserServiceImpl implements UserService {
     // =================================================================================================================
 
     @Override
-    public List<UserDTO> getUsers(String tenantId, Integer offset, Integer limit) {
-        LOG.info("Getting users with offset [{}] and limit [{}]", offset, limit);
+    public CursorPage<UserDTO> getUsers(String tenantId, Integer offset, Integer limit, String cursor) {
+        LOG.info("Getting users with offset [{}], limit [{}] and cursor [{}]", offset, limit, cursor);
 
         int page = Optional.ofNullable(offset).orElse(DEFAULT_PAGE_INDEX);
         int size = Optional.ofNullable(limit).orElse(DEFAULT_PAGE_SIZE);
+        PageCursor after = PageCursor.decode(cursor);
 
-        List<User> foundUsers = userRepository.findAll(tenantId, page, size);
+        List<User> foundUsers = after == null
+                ? userRepository.findAll(tenantId, page, size)
+                : userRepository.findAfter(tenantId, after, size);
 
-        return userMapper.toUsers(foundUsers);
+        String nextCursor = PageCursor.next(foundUsers, size, user -> new PageCursor(user.getCreatedAt(), user.getId()));
+        return new CursorPage<>(userMapper.toUsers(foundUsers), nextCursor);
     }
 
     @Override
@@ -0,0 +1,41 @@
+/*
+ * AdmissionConfig.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.common.admission;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+@ConfigMapping(prefix = "shopbee.tenant.admission")
+public interface AdmissionConfig {
+
+    /**
+     * Whether requests are limited per tenant.
+     */
+    @WithDefault("true")
+    boolean enabled();
+
+    /**
+     * Requests per second of a tenant without its own limit, and of all unknown tenants together.
+     */
+    @WithDefault("100")
+    int requestsPerSecond();
+
+    /**
+     * How many seconds worth of requests a tenant may send at once after being idle.
+     */
+    @WithDefault("1s")
+    Duration burst();
+
+    /**
+     * Requests handled at the same time for a tenant without its own limit, and for all unknown tenants together.
+     */
+    @WithDefault("20")
+    int maxInFlightRequests();
+}
@@ -0,0 +1,27 @@
+/*
+ * RejectedRequestException.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.common.admission;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A request not admitted because its tenant is over a limit.
+ */
+public class RejectedRequestException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RejectedRequestException(String tenant, long waitNanos) {
+        super("Tenant " + tenant + " is over its request limits", null, false, false);
+        this.retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * TenantAdmission.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.common.admission;
+
+import com.shopbee.business.tenant.control.registry.TenantRegistry;
+import com.shopbee.business.tenant.entity.Tenant;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Admits requests per tenant within the limits of the tenant.
+ * <p>
+ * The limits of a tenant are its request columns as found by the {@link TenantRegistry}, so they change
+ * without a restart once the registry holds the written tenant, and the configured defaults otherwise. The
+ * registry also looks up tenants created on another instance since the catalogue was last reloaded, and
+ * remembers unknown names, so only names that are no tenant share one limiter. Made up names can neither
+ * create limiters nor bypass limits, and cannot throttle new tenants either.
+ * </p>
+ */
+@ApplicationScoped
+public class TenantAdmission {
+
+    static final String UNKNOWN_TENANT = "unknown";
+
+    private final ConcurrentMap<String, TenantLimiter> limiters = new ConcurrentHashMap<>();
+
+    private final AdmissionConfig config;
+    private final TenantRegistry tenantRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Inject
+    public TenantAdmission(AdmissionConfig config, TenantRegistry tenantRegistry, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.tenantRegistry = tenantRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Tells if requests are admitted per tenant at all.
+     *
+     * @return {@code true} if admission is enabled
+     */
+    boolean isEnabled() {
+        return config.enabled();
+    }
+
+    /**
+     * Admits a request of a tenant. May look the tenant up in the database, so it is called from a worker thread.
+     *
+     * @param tenantId the tenant id of the request
+     * @return the limiter to release once the request is handled
+     * @throws RejectedRequestException if the tenant is over one of its limits
+     */
+    TenantLimiter acquire(String tenantId) {
+        Tenant tenant = tenantRegistry.find(tenantId);
+        String key = tenant == null ? UNKNOWN_TENANT : tenant.getName();
+        TenantLimiter limiter = limiters.computeIfAbsent(key, this::newLimiter);
+
+        int requestsPerSecond = Optional.ofNullable(tenant).map(Tenant::getRequestsPerSecond).orElse(config.requestsPerSecond());
+        int maxInFlightRequests = Optional.ofNullable(tenant).map(Tenant::getMaxInFlightRequests).orElse(config.maxInFlightRequests());
+        long wait = limiter.tryAcquire(requestsPerSecond, config.burst().toNanos(), maxInFlightRequests);
+        if (wait > 0) {
+            throw new RejectedRequestException(key, wait);
+        }
+        return limiter;
+    }
+
+    private TenantLimiter newLimiter(String tenant) {
+        TenantLimiter limiter = new TenantLimiter(
+                meterRegistry.counter("shopbee.tenant.requests.admitted", "tenant", tenant),
+                meterRegistry.counter("shopbee.tenant.requests.rejected", "tenant", tenant, "reason", "rate"),
+                meterRegistry.counter("shopbee.tenant.requests.rejected", "tenant", tenant, "reason", "in-flight"));
+        meterRegistry.gauge("shopbee.tenant.requests.in.flight", Tags.of("tenant", tenant), limiter, TenantLimiter::inFlight);
+        return limiter;
+    }
+}
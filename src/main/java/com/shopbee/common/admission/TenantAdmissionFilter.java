@@ -0,0 +1,65 @@
+/*
+ * TenantAdmissionFilter.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.common.admission;
+
+import com.shopbee.common.exception.dto.Error;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rejects requests of a tenant over its request rate or in-flight requests with 429 and a Retry-After header.
+ */
+@Provider
+public class TenantAdmissionFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TenantAdmissionFilter.class);
+    private static final String LIMITER_PROPERTY = TenantAdmissionFilter.class.getName() + ".limiter";
+
+    private final TenantAdmission tenantAdmission;
+
+    @Inject
+    public TenantAdmissionFilter(TenantAdmission tenantAdmission) {
+        this.tenantAdmission = tenantAdmission;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        String tenantId = requestContext.getHeaderString("tenantId");
+        if (!tenantAdmission.isEnabled() || StringUtils.isBlank(tenantId)) {
+            return;
+        }
+        try {
+            requestContext.setProperty(LIMITER_PROPERTY, tenantAdmission.acquire(tenantId));
+        } catch (RejectedRequestException e) {
+            LOG.debug("{}, retry after {}s", e.getMessage(), e.getRetryAfterSeconds());
+            requestContext.abortWith(Response.status(Response.Status.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, e.getRetryAfterSeconds())
+                    .type(MediaType.APPLICATION_JSON_TYPE)
+                    .entity(new Error("Too many requests, retry after " + e.getRetryAfterSeconds() + " seconds"))
+                    .build());
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        if (requestContext.getProperty(LIMITER_PROPERTY) instanceof TenantLimiter limiter) {
+            requestContext.removeProperty(LIMITER_PROPERTY);
+            limiter.release();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * TenantLimiter.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.common.admission;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The request rate and in-flight requests of one tenant, updated with compare-and-set only.
+ * <p>
+ * The rate is a token bucket kept as the time its next token is due (the generic cell rate algorithm), so
+ * a take is a single compare-and-set of one long. The limits are passed on every call, so changed tenant
+ * limits apply to the next request.
+ * </p>
+ */
+class TenantLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong nextTokenAt = new AtomicLong(System.nanoTime());
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter admitted;
+    private final Counter rateLimited;
+    private final Counter concurrencyLimited;
+
+    TenantLimiter(Counter admitted, Counter rateLimited, Counter concurrencyLimited) {
+        this.admitted = admitted;
+        this.rateLimited = rateLimited;
+        this.concurrencyLimited = concurrencyLimited;
+    }
+
+    /**
+     * Admits a request if the tenant is within both limits, an admitted request must be {@link #release() released}.
+     *
+     * @param requestsPerSecond   the requests per second
+     * @param burstNanos          how long a burst of requests may be
+     * @param maxInFlightRequests the requests handled at the same time
+     * @return 0 if admitted, otherwise the nanoseconds until a request would be admitted
+     */
+    long tryAcquire(int requestsPerSecond, long burstNanos, int maxInFlightRequests) {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= maxInFlightRequests) {
+                concurrencyLimited.increment();
+                return NANOS_PER_SECOND;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+
+        long wait = takeToken(requestsPerSecond, burstNanos);
+        if (wait > 0) {
+            inFlight.decrementAndGet();
+            rateLimited.increment();
+            return wait;
+        }
+        admitted.increment();
+        return 0;
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    private long takeToken(int requestsPerSecond, long burstNanos) {
+        long interval = NANOS_PER_SECOND / Math.max(1, requestsPerSecond);
+        long tolerance = Math.max(interval, burstNanos);
+        while (true) {
+            long now = System.nanoTime();
+            long due = nextTokenAt.get();
+            long next = Math.max(due, now) + interval;
+            if (next - now > tolerance) {
+                return next - now - tolerance;
+            }
+            if (nextTokenAt.compareAndSet(due, next)) {
+                return 0;
+            }
+        }
+    }
+}
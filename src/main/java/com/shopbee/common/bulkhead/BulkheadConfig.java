@@ -0,0 +1,36 @@
+/*
+ * BulkheadConfig.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.common.bulkhead;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+@ConfigMapping(prefix = "shopbee.tenant.bulkhead")
+public interface BulkheadConfig {
+
+    /**
+     * Whether service calls are limited per tenant.
+     */
+    @WithDefault("true")
+    boolean enabled();
+
+    /**
+     * The service calls of one tenant running at the same time, below the database pool size so that one
+     * tenant cannot take every connection.
+     */
+    @WithDefault("5")
+    int maxConcurrentCalls();
+
+    /**
+     * How long a call waits for its turn before it is rejected.
+     */
+    @WithDefault("2s")
+    Duration maxWait();
+}
@@ -0,0 +1,125 @@
+/*
+ * TenantBulkheadInterceptor.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.common.bulkhead;
+
+import com.shopbee.business.tenant.control.registry.TenantRegistry;
+import com.shopbee.common.exception.ApiServiceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.transaction.Transactional;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link TenantBulkhead} calls within a semaphore per tenant, so that a tenant with slow queries waits
+ * for its own calls instead of holding the connections of the others.
+ * <p>
+ * It runs before the transaction interceptor, so a waiting call holds no connection. A call made while the
+ * thread already holds a permit of the same tenant, such as an order reserving stock, joins the transaction
+ * of the caller and uses its connection, so it does not take another permit and cannot wait for itself. A
+ * nested call that starts a transaction of its own takes a permit for the connection it adds. Tenant names
+ * the {@link TenantRegistry} does not find share one semaphore.
+ * </p>
+ */
+@TenantBulkhead
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 150)
+public class TenantBulkheadInterceptor {
+
+    private static final String TENANT_ID_PARAMETER = "tenantId";
+    private static final String UNKNOWN_TENANT = "unknown";
+    private static final int NO_TENANT = -1;
+    private static final ThreadLocal<Set<String>> HELD = ThreadLocal.withInitial(HashSet::new);
+    private static final ConcurrentMap<Method, Integer> TENANT_ID_INDEXES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Method, Boolean> NEW_TRANSACTIONS = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Compartment> compartments = new ConcurrentHashMap<>();
+
+    private final BulkheadConfig config;
+    private final TenantRegistry tenantRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Inject
+    public TenantBulkheadInterceptor(BulkheadConfig config, TenantRegistry tenantRegistry, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.tenantRegistry = tenantRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @AroundInvoke
+    Object limit(InvocationContext context) throws Exception {
+        int index = TENANT_ID_INDEXES.computeIfAbsent(context.getMethod(), TenantBulkheadInterceptor::tenantIdIndex);
+        if (!config.enabled() || index == NO_TENANT || !(context.getParameters()[index] instanceof String tenantId)) {
+            return context.proceed();
+        }
+        String key = tenantRegistry.find(tenantId) == null ? UNKNOWN_TENANT : tenantId;
+        Set<String> held = HELD.get();
+        boolean nested = held.contains(key);
+        if (nested && !NEW_TRANSACTIONS.computeIfAbsent(context.getMethod(), TenantBulkheadInterceptor::startsTransaction)) {
+            return context.proceed();
+        }
+
+        Compartment compartment = compartments.computeIfAbsent(key, this::newCompartment);
+        if (!compartment.permits().tryAcquire(config.maxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+            compartment.rejected().increment();
+            throw ApiServiceException.unavailable("Tenant [{}] has too many operations in progress, try again later", tenantId);
+        }
+        held.add(key);
+        try {
+            return context.proceed();
+        } finally {
+            if (!nested) {
+                held.remove(key);
+            }
+            compartment.permits().release();
+        }
+    }
+
+    private Compartment newCompartment(String tenant) {
+        int maxConcurrentCalls = Math.max(1, config.maxConcurrentCalls());
+        Semaphore permits = new Semaphore(maxConcurrentCalls, true);
+        meterRegistry.gauge("shopbee.tenant.bulkhead.active", Tags.of("tenant", tenant), permits,
+                semaphore -> maxConcurrentCalls - semaphore.availablePermits());
+        meterRegistry.gauge("shopbee.tenant.bulkhead.waiting", Tags.of("tenant", tenant), permits, Semaphore::getQueueLength);
+        return new Compartment(permits, meterRegistry.counter("shopbee.tenant.bulkhead.rejected", "tenant", tenant));
+    }
+
+    private static int tenantIdIndex(Method method) {
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (TENANT_ID_PARAMETER.equals(parameters[i].getName()) && parameters[i].getType() == String.class) {
+                return i;
+            }
+        }
+        return NO_TENANT;
+    }
+
+    private static boolean startsTransaction(Method method) {
+        Transactional transactional = method.getAnnotation(Transactional.class);
+        if (transactional == null) {
+            transactional = method.getDeclaringClass().getAnnotation(Transactional.class);
+        }
+        return transactional != null && transactional.value() == Transactional.TxType.REQUIRES_NEW;
+    }
+
+    private record Compartment(Semaphore permits, Counter rejected) {
+    }
+}
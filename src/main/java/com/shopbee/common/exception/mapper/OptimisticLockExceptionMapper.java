@@ -0,0 +1,29 @@
+/*
+ * OptimisticLockExceptionMapper.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.common.exception.mapper;
+
+import com.shopbee.common.exception.dto.Error;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Provider
+public class OptimisticLockExceptionMapper implements ExceptionMapper<OptimisticLockException> {
+    private static final Logger LOG = LoggerFactory.getLogger(OptimisticLockExceptionMapper.class);
+
+    @Override
+    public Response toResponse(OptimisticLockException e) {
+        LOG.warn("Optimistic lock conflict: {}", e.getMessage());
+        return Response.status(Response.Status.CONFLICT)
+                .entity(new Error("The resource was modified concurrently, please try again"))
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * RequestBodyConfig.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.common.http;
+
+import io.quarkus.runtime.configuration.MemorySize;
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.util.Set;
+
+@ConfigMapping(prefix = "shopbee.http")
+public interface RequestBodyConfig {
+
+    /**
+     * The largest request body accepted by every route but the {@link #largeBodyPaths() large body paths}.
+     */
+    @WithDefault("10M")
+    MemorySize maxBodySize();
+
+    /**
+     * The request paths, including the root path, whose bodies are only limited by
+     * {@code quarkus.http.limits.max-body-size}.
+     */
+    Set<String> largeBodyPaths();
+}
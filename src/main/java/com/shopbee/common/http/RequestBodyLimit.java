@@ -0,0 +1,63 @@
+/*
+ * RequestBodyLimit.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.common.http;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.quarkus.vertx.http.runtime.RouteConstants;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.apache.commons.lang3.math.NumberUtils;
+
+/**
+ * Limits the request body of every route to {@code shopbee.http.max-body-size}, except for the large body paths.
+ * <p>
+ * Quarkus applies {@code quarkus.http.limits.max-body-size} to every route, so that limit is the one of the
+ * product import. This handler runs on the router right after it, before any body is read: a request with a
+ * larger Content-Length is rejected with 413 at once, and for a chunked request the lower limit replaces the
+ * one the request input stream counts the body against.
+ * </p>
+ */
+@ApplicationScoped
+public class RequestBodyLimit {
+
+    static final String MAX_REQUEST_SIZE_KEY = "io.quarkus.max-request-size";
+
+    private final RequestBodyConfig config;
+
+    @Inject
+    public RequestBodyLimit(RequestBodyConfig config) {
+        this.config = config;
+    }
+
+    void register(@Observes Router router) {
+        router.route().order(RouteConstants.ROUTE_ORDER_UPLOAD_LIMIT + 1).handler(this::limit);
+    }
+
+    private void limit(RoutingContext routingContext) {
+        if (config.largeBodyPaths().contains(routingContext.normalizedPath())) {
+            routingContext.next();
+            return;
+        }
+        long limit = config.maxBodySize().asLongValue();
+        String length = routingContext.request().getHeader(HttpHeaderNames.CONTENT_LENGTH);
+        if (length == null) {
+            routingContext.put(MAX_REQUEST_SIZE_KEY, limit);
+        } else if (NumberUtils.toLong(length) > limit) {
+            routingContext.response()
+                    .putHeader(HttpHeaderNames.CONNECTION, "close")
+                    .setStatusCode(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.code())
+                    .end();
+            return;
+        }
+        routingContext.next();
+    }
+}
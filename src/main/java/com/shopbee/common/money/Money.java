@@ -0,0 +1,92 @@
+/*
+ * Money.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.common.money;
+
+import com.shopbee.common.exception.ApiServiceException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amounts of money are stored and added up as {@code long} minor units, cents, and only turned into decimals
+ * at the API boundary. The methods without a wrapper type are meant for the loops that add up totals.
+ */
+public final class Money {
+
+    /**
+     * The number of decimal places of an amount, the minor units per major unit being {@code 10^SCALE}.
+     */
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Converts a decimal amount received from a client to minor units.
+     *
+     * @param amount the decimal amount
+     * @return the amount in minor units, {@code null} if the amount is {@code null}
+     * @throws ApiServiceException if the amount is not finite, does not fit minor units or has more decimal
+     *                             places than the scale
+     */
+    public static Long toMinor(Double amount) {
+        if (amount == null) {
+            return null;
+        }
+        if (!Double.isFinite(amount)) {
+            throw ApiServiceException.badRequest("Amount [{}] is not a number", amount);
+        }
+        if (!fitsScale(amount)) {
+            throw ApiServiceException.badRequest("Amount [{}] must have at most {} decimal places", amount, SCALE);
+        }
+        try {
+            // valueOf goes through the shortest decimal representation, 19.99 stays 19.99
+            return BigDecimal.valueOf(amount).setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw ApiServiceException.badRequest("Amount [{}] is too large", amount);
+        }
+    }
+
+    /**
+     * Tells whether a decimal amount can be converted to minor units without rounding.
+     *
+     * @param amount the decimal amount, may be {@code null}
+     * @return {@code false} if the amount is not finite or has more decimal places than the scale
+     */
+    public static boolean fitsScale(Double amount) {
+        return amount == null || Double.isFinite(amount) && BigDecimal.valueOf(amount).stripTrailingZeros().scale() <= SCALE;
+    }
+
+    /**
+     * Converts minor units to the decimal amount returned to a client.
+     *
+     * @param minor the amount in minor units
+     * @return the decimal amount, {@code null} if the amount is {@code null}
+     */
+    public static Double toDecimal(Long minor) {
+        return minor == null ? null : BigDecimal.valueOf(minor, SCALE).doubleValue();
+    }
+
+    /**
+     * Multiplies a unit price by a quantity.
+     *
+     * @throws ArithmeticException if the result overflows
+     */
+    public static long times(long unitPrice, int quantity) {
+        return Math.multiplyExact(unitPrice, quantity);
+    }
+
+    /**
+     * Adds two amounts.
+     *
+     * @throws ArithmeticException if the result overflows
+     */
+    public static long plus(long amount, long other) {
+        return Math.addExact(amount, other);
+    }
+}
@@ -0,0 +1,21 @@
+/*
+ * CursorPage.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.common.pagination;
+
+import java.util.List;
+
+/**
+ * A page of items together with the cursor of the page that follows.
+ *
+ * @param items      the items of the page
+ * @param nextCursor the encoded cursor of the next page, {@code null} on the last page
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+}
@@ -0,0 +1,75 @@
+/*
+ * PageCursor.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.common.pagination;
+
+import com.shopbee.common.exception.ApiServiceException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Position of the last item of a page in the {@code (created_at, id)} order used by keyset pagination.
+ * <p>
+ * Clients only see the opaque, URL safe encoded form returned by {@link #encode()}.
+ * </p>
+ *
+ * @param createdAt the creation timestamp of the last item
+ * @param id        the id of the last item, breaking ties between equal timestamps
+ */
+public record PageCursor(OffsetDateTime createdAt, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Decodes a cursor received from a client.
+     *
+     * @param value the encoded cursor
+     * @return the cursor, or {@code null} if the value is blank
+     * @throws ApiServiceException if the value is not a cursor issued by this service
+     */
+    public static PageCursor decode(String value) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == decoded.length() - 1) {
+                throw ApiServiceException.badRequest("Invalid cursor [{}]", value);
+            }
+            return new PageCursor(OffsetDateTime.parse(decoded.substring(0, separator)), decoded.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw ApiServiceException.badRequest("Invalid cursor [{}]", value);
+        }
+    }
+
+    /**
+     * Builds the cursor of the page following the given one.
+     *
+     * @param page     the items of the current page
+     * @param size     the requested page size
+     * @param cursorOf extracts the cursor of an item
+     * @return the encoded cursor, or {@code null} if the page is the last one
+     */
+    public static <T> String next(List<T> page, int size, Function<T, PageCursor> cursorOf) {
+        if (page.isEmpty() || page.size() < size) {
+            return null;
+        }
+        return cursorOf.apply(page.get(page.size() - 1)).encode();
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
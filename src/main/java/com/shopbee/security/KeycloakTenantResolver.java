@@ -8,7 +8,7 @@
 package com.shopbee.security;
 
 
-import com.shopbee.business.tenant.control.repository.TenantRepository;
+import com.shopbee.business.tenant.control.registry.TenantRegistry;
 import com.shopbee.business.tenant.entity.Tenant;
 import io.quarkus.oidc.OidcRequestContext;
 import io.quarkus.oidc.OidcTenantConfig;
@@ -17,7 +17,6 @@ import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.infrastructure.Infrastructure;
 import io.vertx.ext.web.RoutingContext;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.enterprise.context.control.ActivateRequestContext;
 import jakarta.ws.rs.core.UriBuilder;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -25,37 +24,49 @@ import org.slf4j.LoggerFactory;
 
 import java.net.URI;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 @ApplicationScoped
 public class KeycloakTenantResolver implements TenantConfigResolver {
     private static final Logger LOG = LoggerFactory.getLogger(KeycloakTenantResolver.class);
     private static final String REALMS_PATH = "realms";
-    private final Map<String, OidcTenantConfig> tenantConfigCache = new ConcurrentHashMap<>();
+    private static final Pattern TENANT_ID_PATTERN = Pattern.compile("^[a-zA-Z0-9_-]+$");
 
     private final SecurityConfig securityConfig;
-    private final TenantRepository tenantRepository;
+    private final TenantRegistry tenantRegistry;
 
-    public KeycloakTenantResolver(SecurityConfig securityConfig, TenantRepository tenantRepository) {
+    public KeycloakTenantResolver(SecurityConfig securityConfig, TenantRegistry tenantRegistry) {
         this.securityConfig = securityConfig;
-        this.tenantRepository = tenantRepository;
+        this.tenantRegistry = tenantRegistry;
     }
 
+    /**
+     * Resolves the OIDC config of the tenant in the {@code tenantId} header. Tenants resolved before are
+     * answered on the calling event loop thread, as are tenant names known not to exist. Only the first
+     * request of a tenant looks it up on a worker.
+     */
     @Override
-    @ActivateRequestContext
     public Uni<OidcTenantConfig> resolve(RoutingContext routingContext, OidcRequestContext<OidcTenantConfig> requestContext) {
         String tenantId = routingContext.request().getHeader("tenantId");
         if (StringUtils.isBlank(tenantId)) {
             LOG.warn("Missing tenantId in request header");
             return Uni.createFrom().nullItem();
         }
-        if (!tenantId.matches("^[a-zA-Z0-9_-]+$")) {
+        if (!TENANT_ID_PATTERN.matcher(tenantId).matches()) {
             LOG.warn("Invalid tenantId format: {}", tenantId);
             return Uni.createFrom().nullItem();
         }
+        OidcTenantConfig cached = tenantRegistry.findOidcConfig(tenantId);
+        if (cached != null) {
+            return Uni.createFrom().item(cached);
+        }
+        if (tenantRegistry.isUnknown(tenantId)) {
+            LOG.warn("Tenant not found");
+            return Uni.createFrom().nullItem();
+        }
         return Uni.createFrom().item(tenantId)
                 .emitOn(Infrastructure.getDefaultWorkerPool())
-                .onItem().transform(tenantRepository::findByName)
+                .onItem().transform(tenantRegistry::find)
                 .onItem().transform(this::buildOidcTenantConfig);
     }
 
@@ -66,7 +77,7 @@ public class KeycloakTenantResolver implements TenantConfigResolver {
      * @return The internal cache map.
      */
     Map<String, OidcTenantConfig> getCacheForTesting() {
-        return tenantConfigCache;
+        return tenantRegistry.oidcConfigsForTesting();
     }
 
     private OidcTenantConfig buildOidcTenantConfig(Tenant tenant) {
@@ -78,21 +89,22 @@ public class KeycloakTenantResolver implements TenantConfigResolver {
             LOG.warn("Tenant {} is inactive", tenant.getName());
             return null;
         }
-        String tenantId = tenant.getName();
+        return tenantRegistry.oidcConfig(tenant, this::newOidcTenantConfig);
+    }
 
-        return tenantConfigCache.computeIfAbsent(tenantId, key -> {
-            String authServerUrl = buildAuthServerUrl(tenantId);
-            String issuer = buildIssuer(tenantId);
+    private OidcTenantConfig newOidcTenantConfig(Tenant tenant) {
+        String tenantId = tenant.getName();
+        String authServerUrl = buildAuthServerUrl(tenantId);
+        String issuer = buildIssuer(tenantId);
 
-            LOG.debug("Resolve tenant config [tenant={}, authServerUrl={}, issuer={}]", tenantId, authServerUrl, issuer);
+        LOG.debug("Resolve tenant config [tenant={}, authServerUrl={}, issuer={}]", tenantId, authServerUrl, issuer);
 
-            return OidcTenantConfig.builder()
-                    .tenantId(tenantId)
-                    .authServerUrl(authServerUrl)
-                    .clientId(securityConfig.clientId())
-                    .token().issuer(issuer).end()
-                    .build();
-        });
+        return OidcTenantConfig.builder()
+                .tenantId(tenantId)
+                .authServerUrl(authServerUrl)
+                .clientId(securityConfig.clientId())
+                .token().issuer(issuer).end()
+                .build();
     }
 
     private String buildAuthServerUrl(String tenantId) {
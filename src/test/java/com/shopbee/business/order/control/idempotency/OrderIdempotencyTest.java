@@ -0,0 +1,122 @@
+package com.shopbee.business.order.control.idempotency;
+
+import com.shopbee.business.order.control.mapper.OrderMapper;
+import com.shopbee.business.order.control.repository.OrderRepository;
+import com.shopbee.business.order.entity.Order;
+import com.shopbee.common.exception.ApiServiceException;
+import com.shopbee.order.model.CreateOrderItemRequest;
+import com.shopbee.order.model.CreateOrderRequest;
+import com.shopbee.order.model.OrderDTO;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class OrderIdempotencyTest {
+
+    private static final String TENANT_ID = "idempotency";
+    private static final String USER_ID = "user-1";
+
+    @Inject
+    OrderIdempotency orderIdempotency;
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    OrderMapper orderMapper;
+
+    @Inject
+    @CacheName(OrderIdempotency.CACHE_NAME)
+    Cache cache;
+
+    private final AtomicInteger created = new AtomicInteger();
+    private String idempotencyKey;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyKey = UUID.randomUUID().toString();
+    }
+
+    @Test
+    @DisplayName("Should create the order once and replay it for a repeated request")
+    void testExecute_withRepeatedRequest_shouldReplayOrder() {
+        OrderDTO first = orderIdempotency.execute(TENANT_ID, USER_ID, idempotencyKey, request(2), create());
+        OrderDTO second = orderIdempotency.execute(TENANT_ID, USER_ID, idempotencyKey, request(2), create());
+
+        assertEquals(1, created.get());
+        assertEquals(first.getId(), second.getId());
+    }
+
+    @Test
+    @DisplayName("Should replay the order from the key table once the key is no longer cached")
+    void testExecute_withKeyOnlyInDatabase_shouldReplayOrder() {
+        OrderDTO first = orderIdempotency.execute(TENANT_ID, USER_ID, idempotencyKey, request(2), create());
+        cache.invalidateAll().await().indefinitely();
+
+        OrderDTO second = orderIdempotency.execute(TENANT_ID, USER_ID, idempotencyKey, request(2), create());
+
+        assertEquals(1, created.get());
+        assertEquals(first.getId(), second.getId());
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different request with a conflict")
+    void testExecute_withDifferentRequest_shouldThrowConflict() {
+        orderIdempotency.execute(TENANT_ID, USER_ID, idempotencyKey, request(2), create());
+
+        ApiServiceException cached = assertThrows(ApiServiceException.class,
+                () -> orderIdempotency.execute(TENANT_ID, USER_ID, idempotencyKey, request(3), create()));
+        cache.invalidateAll().await().indefinitely();
+        ApiServiceException stored = assertThrows(ApiServiceException.class,
+                () -> orderIdempotency.execute(TENANT_ID, "user-2", idempotencyKey, request(2), create()));
+
+        assertEquals(409, cached.getResponse().getStatus());
+        assertEquals(409, stored.getResponse().getStatus());
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    @DisplayName("Should find the order of a key only for the user that created it")
+    void testFind_withKnownKey_shouldReturnOrderOfSameUser() {
+        OrderDTO order = orderIdempotency.execute(TENANT_ID, USER_ID, idempotencyKey, request(1), create());
+
+        assertEquals(order.getId(), orderIdempotency.find(TENANT_ID, USER_ID, idempotencyKey).orElseThrow().getId());
+        assertTrue(orderIdempotency.find(TENANT_ID, USER_ID, UUID.randomUUID().toString()).isEmpty());
+        ApiServiceException exception = assertThrows(ApiServiceException.class,
+                () -> orderIdempotency.find(TENANT_ID, "user-2", idempotencyKey));
+        assertEquals(409, exception.getResponse().getStatus());
+    }
+
+    private Function<String, OrderDTO> create() {
+        return requestHash -> QuarkusTransaction.requiringNew().call(() -> {
+            created.incrementAndGet();
+            Order order = new Order();
+            order.setTenantId(TENANT_ID);
+            order.setUserId(USER_ID);
+            order.setStatus(Order.Status.CREATED);
+            order.setTotalPrice(1000L);
+            orderRepository.persist(order);
+            orderIdempotency.record(TENANT_ID, idempotencyKey, requestHash, order.getId());
+            return orderMapper.toOrderDTO(order);
+        });
+    }
+
+    private static CreateOrderRequest request(int quantity) {
+        return new CreateOrderRequest().items(List.of(new CreateOrderItemRequest("product-1", quantity)));
+    }
+}
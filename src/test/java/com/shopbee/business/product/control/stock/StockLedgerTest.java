@@ -0,0 +1,164 @@
+package com.shopbee.business.product.control.stock;
+
+import com.shopbee.business.product.control.repository.StockJournalRepository;
+import com.shopbee.common.exception.ApiServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockLedgerTest {
+
+    private static final String TENANT_ID = "tenant-a";
+
+    private final StockConfig stockConfig = mock();
+    private final StockConfig.Ledger ledgerConfig = mock();
+    private final StockWriter stockWriter = mock();
+    private final StockJournalRepository stockJournalRepository = mock();
+    private final TransactionSynchronizationRegistry transactionSynchronizationRegistry = mock();
+    private final Map<String, Object[]> stock = new HashMap<>();
+    private final List<Synchronization> synchronizations = new ArrayList<>();
+    private StockLedger stockLedger;
+
+    @BeforeEach
+    void setUp() {
+        when(stockConfig.ledger()).thenReturn(ledgerConfig);
+        when(ledgerConfig.tenants()).thenReturn(Optional.of(Set.of(TENANT_ID)));
+        when(ledgerConfig.maxEntries()).thenReturn(100);
+        when(transactionSynchronizationRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+        doAnswer(invocation -> synchronizations.add(invocation.getArgument(0)))
+                .when(transactionSynchronizationRegistry).registerInterposedSynchronization(any());
+        when(stockJournalRepository.findLedgerStock(eq(TENANT_ID), anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(1);
+            return ids.stream().filter(stock::containsKey).map(stock::get).toList();
+        });
+        stockLedger = new StockLedger(stockConfig, stockWriter, stockJournalRepository, transactionSynchronizationRegistry, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should be enabled only for the configured tenants")
+    void testIsEnabled_withConfiguredTenants_shouldMatchTenant() {
+        assertTrue(stockLedger.isEnabled(TENANT_ID));
+        assertFalse(stockLedger.isEnabled("tenant-b"));
+    }
+
+    @Test
+    @DisplayName("Should take the quantity from the loaded counter and journal it as a negative delta")
+    void testReserve_withEnoughStock_shouldJournalNegativeDelta() {
+        stock("product-1", 10);
+
+        stockLedger.reserve(TENANT_ID, Map.of("product-1", 3));
+        complete(Status.STATUS_COMMITTED);
+
+        verify(stockWriter).journalInTransaction(TENANT_ID, Map.of("product-1", -3));
+        verify(stockWriter, never()).reserve(anyString(), anyMap());
+        assertThrows(ApiServiceException.class, () -> stockLedger.reserve(TENANT_ID, Map.of("product-1", 8)));
+        stockLedger.reserve(TENANT_ID, Map.of("product-1", 7));
+        verify(stockJournalRepository, times(1)).findLedgerStock(eq(TENANT_ID), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should take nothing and journal nothing when one of the products is short")
+    void testReserve_withShortProduct_shouldReserveNothing() {
+        stock("product-1", 10);
+        stock("product-2", 1);
+
+        ApiServiceException exception = assertThrows(ApiServiceException.class,
+                () -> stockLedger.reserve(TENANT_ID, Map.of("product-1", 5, "product-2", 2)));
+
+        assertEquals(409, exception.getResponse().getStatus());
+        verify(stockWriter, never()).journalInTransaction(anyString(), anyMap());
+        stockLedger.reserve(TENANT_ID, Map.of("product-1", 10, "product-2", 1));
+    }
+
+    @Test
+    @DisplayName("Should give the quantity back when the transaction rolls back")
+    void testReserve_withRollback_shouldGiveQuantityBack() {
+        stock("product-1", 5);
+
+        stockLedger.reserve(TENANT_ID, Map.of("product-1", 5));
+        complete(Status.STATUS_ROLLEDBACK);
+
+        stockLedger.reserve(TENANT_ID, Map.of("product-1", 5));
+        verify(stockWriter, times(2)).journalInTransaction(TENANT_ID, Map.of("product-1", -5));
+    }
+
+    @Test
+    @DisplayName("Should reserve products the repository does not return in the database")
+    void testReserve_withUntrackedProduct_shouldReserveInDatabase() {
+        stock("product-1", 5);
+
+        stockLedger.reserve(TENANT_ID, Map.of("product-1", 1, "product-2", 2));
+
+        verify(stockWriter).reserve(TENANT_ID, Map.of("product-2", 2));
+        verify(stockWriter).journalInTransaction(TENANT_ID, Map.of("product-1", -1));
+    }
+
+    @Test
+    @DisplayName("Should reload an evicted counter from the stored stock and the pending journal")
+    void testEvict_outsideTransaction_shouldReplayStockOnNextReserve() {
+        stock("product-1", 5);
+        stockLedger.reserve(TENANT_ID, Map.of("product-1", 5));
+        complete(Status.STATUS_COMMITTED);
+
+        // The stock was raised without the ledger, the reload reads it back with the journal applied
+        stock("product-1", 20);
+        when(transactionSynchronizationRegistry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+        stockLedger.evict(TENANT_ID, "product-1");
+        stockLedger.reserve(TENANT_ID, Map.of("product-1", 20));
+
+        verify(stockJournalRepository, times(2)).findLedgerStock(eq(TENANT_ID), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should keep the counter until the evicting transaction completed")
+    void testEvict_insideTransaction_shouldDropCounterAfterCompletion() {
+        stock("product-1", 5);
+        stockLedger.reserve(TENANT_ID, Map.of("product-1", 1));
+        complete(Status.STATUS_COMMITTED);
+
+        stockLedger.evict(TENANT_ID, "product-1");
+        verify(stockJournalRepository, times(1)).findLedgerStock(eq(TENANT_ID), anyCollection());
+        complete(Status.STATUS_COMMITTED);
+
+        stockLedger.reserve(TENANT_ID, Map.of("product-1", 1));
+        verify(stockJournalRepository, times(2)).findLedgerStock(eq(TENANT_ID), anyCollection());
+    }
+
+    private void stock(String productId, long available) {
+        stock.put(productId, new Object[]{productId, "SKU-" + productId, available});
+    }
+
+    private void complete(int status) {
+        List<Synchronization> completed = List.copyOf(synchronizations);
+        synchronizations.clear();
+        completed.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
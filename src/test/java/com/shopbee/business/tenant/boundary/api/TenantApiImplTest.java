@@ -0,0 +1,43 @@
+package com.shopbee.business.tenant.boundary.api;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Checks that only platform administrators reach the tenant API, as every tenant can be read and changed there.
+ */
+@QuarkusTest
+class TenantApiImplTest {
+
+    private static final String TENANT_PAYLOAD = """
+            {"name": "tenant-a", "displayName": "Tenant A", "adminEmail": "admin@tenant-a.com"}
+            """;
+
+    @Test
+    @DisplayName("Should reject every tenant operation of an ordinary tenant user with 403")
+    @TestSecurity(user = "alice", roles = "user")
+    void testTenantApi_withTenantUser_shouldBeForbidden() {
+        given().when().get("/tenants").then().statusCode(403);
+        given().when().get("/tenants/tenant-a").then().statusCode(403);
+        given().contentType("application/json").body(TENANT_PAYLOAD).when().post("/tenants").then().statusCode(403);
+        given().contentType("application/json").body(TENANT_PAYLOAD).when().put("/tenants/tenant-a").then().statusCode(403);
+        given().when().delete("/tenants/tenant-a").then().statusCode(403);
+    }
+
+    @Test
+    @DisplayName("Should reject an anonymous request with 401")
+    void testTenantApi_withoutIdentity_shouldBeUnauthorized() {
+        given().when().get("/tenants").then().statusCode(401);
+    }
+
+    @Test
+    @DisplayName("Should let a platform administrator list the tenants")
+    @TestSecurity(user = "admin", roles = TenantApiImpl.PLATFORM_ADMIN_ROLE)
+    void testTenantApi_withPlatformAdmin_shouldListTenants() {
+        given().when().get("/tenants").then().statusCode(200);
+    }
+}
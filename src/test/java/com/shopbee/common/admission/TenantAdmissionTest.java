@@ -0,0 +1,67 @@
+package com.shopbee.common.admission;
+
+import com.shopbee.business.tenant.control.catalogue.TenantCatalogue;
+import com.shopbee.business.tenant.control.registry.TenantRegistry;
+import com.shopbee.business.tenant.control.registry.TenantRegistryConfig;
+import com.shopbee.business.tenant.control.repository.TenantRepository;
+import com.shopbee.business.tenant.entity.Tenant;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TenantAdmissionTest {
+
+    private final TenantCatalogue tenantCatalogue = mock();
+    private final TenantRepository tenantRepository = mock();
+    private final TenantRegistryConfig tenantRegistryConfig = mock();
+    private final AdmissionConfig admissionConfig = mock();
+    private TenantAdmission tenantAdmission;
+
+    @BeforeEach
+    void setUp() {
+        when(tenantRegistryConfig.maximumSize()).thenReturn(100);
+        when(tenantRegistryConfig.refreshAfterWrite()).thenReturn(Duration.ofMinutes(1));
+        when(tenantRegistryConfig.expireAfterWrite()).thenReturn(Duration.ofMinutes(10));
+        when(tenantRegistryConfig.unknownMaximumSize()).thenReturn(100);
+        when(tenantRegistryConfig.unknownExpireAfterWrite()).thenReturn(Duration.ofSeconds(30));
+        when(admissionConfig.requestsPerSecond()).thenReturn(1);
+        when(admissionConfig.burst()).thenReturn(Duration.ZERO);
+        when(admissionConfig.maxInFlightRequests()).thenReturn(20);
+        TenantRegistry tenantRegistry = new TenantRegistry(tenantCatalogue, tenantRepository, tenantRegistryConfig, new SimpleMeterRegistry());
+        tenantAdmission = new TenantAdmission(admissionConfig, tenantRegistry, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should give a tenant not yet in the catalogue its own limiter instead of the shared one")
+    void testAcquire_withTenantOnlyInDatabase_shouldNotShareUnknownLimiter() {
+        Tenant tenant = new Tenant();
+        tenant.setName("tenant-new");
+        when(tenantRepository.findByName("tenant-new")).thenReturn(tenant);
+
+        TenantLimiter unknown = tenantAdmission.acquire("made-up");
+        TenantLimiter limiter = tenantAdmission.acquire("tenant-new");
+
+        assertNotSame(unknown, limiter);
+        assertThrows(RejectedRequestException.class, () -> tenantAdmission.acquire("other-made-up"));
+    }
+
+    @Test
+    @DisplayName("Should look up an unknown tenant name in the database only once")
+    void testAcquire_withUnknownTenant_shouldRememberUnknownName() {
+        TenantLimiter first = tenantAdmission.acquire("made-up");
+        first.release();
+        assertThrows(RejectedRequestException.class, () -> tenantAdmission.acquire("made-up"));
+
+        verify(tenantRepository, times(1)).findByName("made-up");
+    }
+}
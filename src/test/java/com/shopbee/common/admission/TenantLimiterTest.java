@@ -0,0 +1,84 @@
+package com.shopbee.common.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TenantLimiterTest {
+
+    private static final long ONE_SECOND = Duration.ofSeconds(1).toNanos();
+
+    private Counter admitted;
+    private Counter rateLimited;
+    private Counter concurrencyLimited;
+    private TenantLimiter tenantLimiter;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        admitted = meterRegistry.counter("admitted");
+        rateLimited = meterRegistry.counter("rate");
+        concurrencyLimited = meterRegistry.counter("in-flight");
+        tenantLimiter = new TenantLimiter(admitted, rateLimited, concurrencyLimited);
+    }
+
+    @Test
+    @DisplayName("Should admit a burst of one second of requests and reject the next one with the wait until a token is due")
+    void testTryAcquire_withBurst_shouldAdmitBurstThenRejectWithWait() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, tenantLimiter.tryAcquire(10, ONE_SECOND, 100));
+        }
+
+        long wait = tenantLimiter.tryAcquire(10, ONE_SECOND, 100);
+
+        assertTrue(wait > 0 && wait <= ONE_SECOND / 10, "wait was " + wait);
+        assertEquals(10, admitted.count());
+        assertEquals(1, rateLimited.count());
+    }
+
+    @Test
+    @DisplayName("Should admit at least one request per interval when the burst is shorter than the interval")
+    void testTryAcquire_withBurstShorterThanInterval_shouldAdmitOneRequest() {
+        assertEquals(0, tenantLimiter.tryAcquire(1, 0, 100));
+
+        assertTrue(tenantLimiter.tryAcquire(1, 0, 100) > 0);
+    }
+
+    @Test
+    @DisplayName("Should reject requests over the in-flight cap until one is released")
+    void testTryAcquire_withInFlightCap_shouldRejectUntilReleased() {
+        assertEquals(0, tenantLimiter.tryAcquire(1000, ONE_SECOND, 2));
+        assertEquals(0, tenantLimiter.tryAcquire(1000, ONE_SECOND, 2));
+
+        assertEquals(ONE_SECOND, tenantLimiter.tryAcquire(1000, ONE_SECOND, 2));
+        assertEquals(1, concurrencyLimited.count());
+        assertEquals(2, tenantLimiter.inFlight());
+
+        tenantLimiter.release();
+
+        assertEquals(0, tenantLimiter.tryAcquire(1000, ONE_SECOND, 2));
+        assertEquals(2, tenantLimiter.inFlight());
+    }
+
+    @Test
+    @DisplayName("Should release the in-flight slot of a request rejected by the rate")
+    void testTryAcquire_withRateRejection_shouldReleaseInFlightSlot() {
+        assertEquals(0, tenantLimiter.tryAcquire(1, 0, 5));
+        tenantLimiter.release();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(tenantLimiter.tryAcquire(1, 0, 5) > 0);
+        }
+
+        assertEquals(0, tenantLimiter.inFlight());
+        assertEquals(10, rateLimited.count());
+        assertEquals(0, concurrencyLimited.count());
+    }
+}
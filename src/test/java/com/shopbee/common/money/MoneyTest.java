@@ -0,0 +1,68 @@
+package com.shopbee.common.money;
+
+import com.shopbee.common.exception.ApiServiceException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyTest {
+
+    @ParameterizedTest
+    @CsvSource({"19.99, 1999", "0.1, 10", "0.07, 7", "10, 1000", "1.10, 110", "0, 0", "-2.5, -250", "1234567.89, 123456789"})
+    @DisplayName("Should convert an amount with at most two decimal places to minor units without rounding")
+    void testToMinor_withAmountInScale_shouldReturnExactMinorUnits(double amount, long minor) {
+        assertEquals(minor, Money.toMinor(amount));
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.005, 19.999, 0.30000000000000004, 1e-9})
+    @DisplayName("Should reject an amount with more than two decimal places instead of rounding it")
+    void testToMinor_withTooManyDecimals_shouldThrowBadRequest(double amount) {
+        ApiServiceException exception = assertThrows(ApiServiceException.class, () -> Money.toMinor(amount));
+
+        assertEquals(400, exception.getResponse().getStatus());
+        assertFalse(Money.fitsScale(amount));
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 1e20})
+    @DisplayName("Should reject an amount that is not a number or does not fit minor units")
+    void testToMinor_withAmountOutOfRange_shouldThrowBadRequest(double amount) {
+        ApiServiceException exception = assertThrows(ApiServiceException.class, () -> Money.toMinor(amount));
+
+        assertEquals(400, exception.getResponse().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should pass null through both conversions")
+    void testConversions_withNull_shouldReturnNull() {
+        assertNull(Money.toMinor(null));
+        assertNull(Money.toDecimal(null));
+        assertTrue(Money.fitsScale(null));
+    }
+
+    @Test
+    @DisplayName("Should convert minor units back to the decimal amount")
+    void testToDecimal_withMinorUnits_shouldReturnAmount() {
+        assertEquals(19.99, Money.toDecimal(1999L));
+        assertEquals(0.07, Money.toDecimal(7L));
+        assertEquals(19.99, Money.toDecimal(Money.toMinor(19.99)));
+    }
+
+    @Test
+    @DisplayName("Should fail instead of overflowing when multiplying or adding")
+    void testArithmetic_withOverflow_shouldThrow() {
+        assertEquals(5997L, Money.times(1999L, 3));
+        assertEquals(3000L, Money.plus(1000L, 2000L));
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE, 2));
+        assertThrows(ArithmeticException.class, () -> Money.plus(Long.MAX_VALUE, 1L));
+    }
+}
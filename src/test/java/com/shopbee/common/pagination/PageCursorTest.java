@@ -0,0 +1,83 @@
+package com.shopbee.common.pagination;
+
+import com.shopbee.common.exception.ApiServiceException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    private static final OffsetDateTime CREATED_AT = OffsetDateTime.of(2025, 3, 1, 12, 30, 15, 123_456_000, ZoneOffset.ofHours(2));
+
+    @Test
+    @DisplayName("Should decode an encoded cursor to the same timestamp and id")
+    void testDecode_withEncodedCursor_shouldReturnSameCursor() {
+        PageCursor cursor = new PageCursor(CREATED_AT, "order|with|separators");
+
+        assertEquals(cursor, PageCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    @DisplayName("Should encode a cursor as URL safe text without padding")
+    void testEncode_withCursor_shouldBeUrlSafe() {
+        String encoded = new PageCursor(CREATED_AT, "id?with/chars+").encode();
+
+        assertFalse(encoded.contains("=") || encoded.contains("+") || encoded.contains("/"), encoded);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "  "})
+    @DisplayName("Should return null when the cursor is blank")
+    void testDecode_withBlankCursor_shouldReturnNull(String value) {
+        assertNull(PageCursor.decode(value));
+        assertNull(PageCursor.decode(null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2025-03-01T12:30:15Z", "|id", "2025-03-01T12:30:15Z|", "yesterday|id"})
+    @DisplayName("Should reject a cursor that was not issued by the service with a bad request")
+    void testDecode_withMalformedCursor_shouldThrowBadRequest(String raw) {
+        ApiServiceException exception = assertThrows(ApiServiceException.class, () -> PageCursor.decode(encode(raw)));
+
+        assertEquals(400, exception.getResponse().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor that is not base64 with a bad request")
+    void testDecode_withInvalidBase64_shouldThrowBadRequest() {
+        ApiServiceException exception = assertThrows(ApiServiceException.class, () -> PageCursor.decode("not base64!"));
+
+        assertEquals(400, exception.getResponse().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should build the next cursor from the last item of a full page")
+    void testNext_withFullPage_shouldReturnCursorOfLastItem() {
+        List<PageCursor> page = List.of(new PageCursor(CREATED_AT, "a"), new PageCursor(CREATED_AT.plusSeconds(1), "b"));
+
+        assertEquals(page.get(1), PageCursor.decode(PageCursor.next(page, 2, item -> item)));
+    }
+
+    @Test
+    @DisplayName("Should return no next cursor for a short or empty page")
+    void testNext_withLastPage_shouldReturnNull() {
+        assertNull(PageCursor.next(List.of(new PageCursor(CREATED_AT, "a")), 2, item -> item));
+        assertNull(PageCursor.next(List.<PageCursor>of(), 2, item -> item));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * CapturingStatementInspector.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.persistence;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL statements Hibernate prepares while capturing is started.
+ */
+@ApplicationScoped
+@PersistenceUnitExtension
+public class CapturingStatementInspector implements StatementInspector {
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+    private volatile boolean capturing;
+
+    public void start() {
+        statements.clear();
+        capturing = true;
+    }
+
+    public List<String> stop() {
+        capturing = false;
+        return List.copyOf(statements);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (capturing) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}
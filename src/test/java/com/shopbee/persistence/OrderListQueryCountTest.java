@@ -0,0 +1,127 @@
+/*
+ * OrderListQueryCountTest.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.persistence;
+
+import com.shopbee.business.order.control.repository.OrderRepository;
+import com.shopbee.business.order.control.service.OrderService;
+import com.shopbee.business.order.entity.Order;
+import com.shopbee.business.order.entity.OrderItem;
+import com.shopbee.business.tenant.control.catalogue.TenantCatalogue;
+import com.shopbee.business.tenant.entity.Tenant;
+import com.shopbee.common.pagination.CursorPage;
+import com.shopbee.common.pagination.PageCursor;
+import com.shopbee.order.model.OrderDTO;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements of the order list reads with the Hibernate statistics, so that loading the items of
+ * the orders on a page cannot turn into one query per order again.
+ */
+@QuarkusTest
+@TestProfile(StatementCountTestProfile.class)
+class OrderListQueryCountTest {
+
+    private static final String TENANT_ID = "order-list";
+    private static final int ORDERS = 12;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Inject
+    OrderService orderService;
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    TenantCatalogue tenantCatalogue;
+
+    private String userId;
+
+    @BeforeEach
+    void createOrders() {
+        // A known tenant, so the bulkhead does not look it up in the database while statements are counted
+        Tenant tenant = new Tenant();
+        tenant.setName(TENANT_ID);
+        tenant.setStatus(Tenant.Status.ACTIVE);
+        tenantCatalogue.put(tenant);
+        userId = UUID.randomUUID().toString();
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < ORDERS; i++) {
+                Order order = new Order();
+                order.setTenantId(TENANT_ID);
+                order.setUserId(userId);
+                order.setStatus(Order.Status.CREATED);
+                order.setTotalPrice(3000L);
+                List<OrderItem> items = new ArrayList<>();
+                for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                    OrderItem item = new OrderItem();
+                    item.setTenantId(TENANT_ID);
+                    item.setOrder(order);
+                    item.setProductId("product-" + j);
+                    item.setQuantity(1);
+                    item.setPrice(1000L);
+                    items.add(item);
+                }
+                order.setItems(items);
+                orderRepository.persist(order);
+            }
+        });
+    }
+
+    @Test
+    void offsetPageLoadsOrdersWithItemsInTwoStatements() {
+        CursorPage<OrderDTO> page = countStatements(() -> orderService.getOrders(TENANT_ID, userId, 0, 10, null), 2);
+
+        assertThat(page.items()).hasSize(10);
+        assertThat(page.items()).allSatisfy(order -> assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER));
+    }
+
+    @Test
+    void cursorPageLoadsOrdersWithItemsInTwoStatements() {
+        CursorPage<OrderDTO> first = QuarkusTransaction.requiringNew().call(() -> orderService.getOrders(TENANT_ID, userId, 0, 5, null));
+        CursorPage<OrderDTO> page = countStatements(() -> orderService.getOrders(TENANT_ID, userId, 0, 5, first.nextCursor()), 2);
+
+        assertThat(page.items()).hasSize(5);
+        assertThat(page.items()).allSatisfy(order -> assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER));
+        assertThat(page.items()).extracting(OrderDTO::getId).doesNotContainAnyElementsOf(first.items().stream().map(OrderDTO::getId).toList());
+    }
+
+    @Test
+    void emptyPageLoadsNoOrders() {
+        PageCursor last = new PageCursor(OffsetDateTime.now().plusDays(1), UUID.randomUUID().toString());
+        CursorPage<OrderDTO> page = countStatements(() -> orderService.getOrders(TENANT_ID, userId, 0, 5, last.encode()), 1);
+
+        assertThat(page.items()).isEmpty();
+    }
+
+    private <T> T countStatements(Supplier<T> read, long expectedStatements) {
+        Statistics statistics = sessionFactory.getStatistics();
+        assertThat(statistics.isStatisticsEnabled()).isTrue();
+        statistics.clear();
+        T result = QuarkusTransaction.requiringNew().call(read::get);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expectedStatements);
+        return result;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * QueryPlanTest.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.persistence;
+
+import com.shopbee.business.image.control.repository.ImagesRepository;
+import com.shopbee.business.order.control.repository.OrderRepository;
+import com.shopbee.business.order.control.repository.OrderSummaryRepository;
+import com.shopbee.business.order.entity.Order;
+import com.shopbee.business.product.control.repository.ProductRepository;
+import com.shopbee.business.product.control.repository.StockJournalRepository;
+import com.shopbee.business.tenant.control.repository.TenantRepository;
+import com.shopbee.business.user.control.repository.AddressRepository;
+import com.shopbee.business.user.control.repository.UserRepository;
+import com.shopbee.common.pagination.PageCursor;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs the tenant scoped repository queries against the Liquibase schema and fails when H2 plans any of
+ * the generated statements as a table scan.
+ */
+@QuarkusTest
+@TestProfile(QueryPlanTestProfile.class)
+class QueryPlanTest {
+
+    private static final String TENANT_ID = "query-plan";
+    private static final String ID = "00000000-0000-0000-0000-000000000000";
+    private static final PageCursor CURSOR = new PageCursor(OffsetDateTime.parse("2024-01-01T00:00:00Z"), ID);
+
+    @Inject
+    ProductRepository productRepository;
+
+    @Inject
+    StockJournalRepository stockJournalRepository;
+
+    @Inject
+    UserRepository userRepository;
+
+    @Inject
+    AddressRepository addressRepository;
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    OrderSummaryRepository orderSummaryRepository;
+
+    @Inject
+    ImagesRepository imagesRepository;
+
+    @Inject
+    TenantRepository tenantRepository;
+
+    @Inject
+    @PersistenceUnitExtension
+    CapturingStatementInspector statementInspector;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesUseIndexes() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("ProductRepository.findAll", () -> productRepository.findAll(TENANT_ID, 0, 20));
+        queries.put("ProductRepository.findAfter", () -> productRepository.findAfter(TENANT_ID, CURSOR, 20));
+        queries.put("ProductRepository.findById", () -> productRepository.findById(TENANT_ID, ID));
+        queries.put("ProductRepository.findBySku", () -> productRepository.findBySku(TENANT_ID, "sku"));
+        queries.put("ProductRepository.countBySku", () -> productRepository.countBySku(TENANT_ID, "sku"));
+        queries.put("ProductRepository.countBySkuExcludeProductId", () -> productRepository.countBySkuExcludeProductId(TENANT_ID, "sku", ID));
+        queries.put("ProductRepository.findStockLevels", () -> productRepository.findStockLevels(TENANT_ID, List.of(ID, "other")));
+        queries.put("StockJournalRepository.findLedgerStock", () -> stockJournalRepository.findLedgerStock(TENANT_ID, List.of(ID)));
+        queries.put("UserRepository.findAll", () -> userRepository.findAll(TENANT_ID, 0, 20));
+        queries.put("UserRepository.findAfter", () -> userRepository.findAfter(TENANT_ID, CURSOR, 20));
+        queries.put("UserRepository.findById", () -> userRepository.findById(TENANT_ID, ID));
+        queries.put("UserRepository.findByUsername", () -> userRepository.findByUsername(TENANT_ID, "username"));
+        queries.put("UserRepository.findByEmail", () -> userRepository.findByEmail(TENANT_ID, "user@shopbee.com"));
+        queries.put("UserRepository.countByEmail", () -> userRepository.countByEmail(TENANT_ID, "user@shopbee.com"));
+        queries.put("UserRepository.countByUsername", () -> userRepository.countByUsername(TENANT_ID, "username"));
+        queries.put("UserRepository.countByPhone", () -> userRepository.countByPhone(TENANT_ID, "+84", "123456789"));
+        queries.put("UserRepository.countByEmailExcludeUserId", () -> userRepository.countByEmailExcludeUserId(TENANT_ID, "user@shopbee.com", ID));
+        queries.put("UserRepository.countByPhoneExcludeUserId", () -> userRepository.countByPhoneExcludeUserId(TENANT_ID, "+84", "123456789", ID));
+        queries.put("AddressRepository.findByUserId", () -> addressRepository.findByUserId(TENANT_ID, ID));
+        queries.put("AddressRepository.findByIdAndUserId", () -> addressRepository.findByIdAndUserId(TENANT_ID, ID, ID));
+        queries.put("OrderRepository.findByUserId", () -> orderRepository.findByUserId(TENANT_ID, ID, 0, 20));
+        queries.put("OrderRepository.findByUserIdAfter", () -> orderRepository.findByUserIdAfter(TENANT_ID, ID, CURSOR, 20));
+        queries.put("OrderRepository.findById", () -> orderRepository.findById(TENANT_ID, ID));
+        queries.put("OrderRepository.lockCreatedBefore", () -> orderRepository.lockCreatedBefore(List.of(Order.Status.CREATED), CURSOR.createdAt(), 20));
+        queries.put("OrderRepository.findStatuses", () -> orderRepository.findStatuses(TENANT_ID, List.of(ID, "other")));
+        queries.put("OrderSummaryRepository.findByUserId", () -> orderSummaryRepository.findByUserId(TENANT_ID, ID));
+        queries.put("ImagesRepository.find", () -> imagesRepository.find(TENANT_ID, 0, 20));
+        queries.put("ImagesRepository.findAfter", () -> imagesRepository.findAfter(TENANT_ID, CURSOR, 20));
+        queries.put("TenantRepository.findByName", () -> tenantRepository.findByName(TENANT_ID));
+
+        return queries.entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> assertIndexed(query.getValue())));
+    }
+
+    private void assertIndexed(Runnable query) throws SQLException {
+        List<String> statements;
+        statementInspector.start();
+        try {
+            QuarkusTransaction.requiringNew().run(query);
+        } finally {
+            statements = statementInspector.stop();
+        }
+        assertFalse(statements.isEmpty(), "The query should have executed at least one statement");
+        for (String statement : statements) {
+            String plan = explain(statement);
+            assertFalse(plan.contains("tableScan"), "Statement is planned as a table scan:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            bindSampleParameters(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append(System.lineSeparator());
+                }
+                return plan.toString();
+            }
+        }
+    }
+
+    /**
+     * Binds a value of the inferred type to every parameter, the planner only needs the parameters to be set.
+     */
+    private void bindSampleParameters(PreparedStatement statement) throws SQLException {
+        ParameterMetaData metaData = statement.getParameterMetaData();
+        for (int i = 1; i <= metaData.getParameterCount(); i++) {
+            switch (metaData.getParameterType(i)) {
+                case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.CLOB -> statement.setString(i, TENANT_ID);
+                case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> statement.setObject(i, CURSOR.createdAt());
+                default -> statement.setInt(i, 1);
+            }
+        }
+    }
+}
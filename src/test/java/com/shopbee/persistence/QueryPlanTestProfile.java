@@ -0,0 +1,28 @@
+/*
+ * QueryPlanTestProfile.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.persistence;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+import java.util.Map;
+
+/**
+ * Builds the schema with the Liquibase changelogs instead of Hibernate so the indexes under test exist, and
+ * stops the scheduled jobs so that only the statements of the query under test are captured.
+ */
+public class QueryPlanTestProfile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of(
+                "quarkus.hibernate-orm.database.generation", "none",
+                "quarkus.liquibase.migrate-at-start", "true",
+                "quarkus.scheduler.enabled", "false",
+                "quarkus.datasource.jdbc.url", "jdbc:h2:mem:shopbee-query-plan;DB_CLOSE_DELAY=-1");
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * StatementCountTestProfile.java
+ *
+ * Copyright by shopbee-service, all rights reserved.
+ * MIT License: https://mit-license.org
+ */
+
+package com.shopbee.persistence;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+import java.util.Map;
+
+/**
+ * Enables the Hibernate statistics and stops the scheduled jobs, whose statements would be counted as well.
+ */
+public class StatementCountTestProfile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of(
+                "quarkus.hibernate-orm.statistics", "true",
+                "quarkus.scheduler.enabled", "false");
+    }
+}
@@ -1,7 +1,11 @@
 package com.shopbee.security;
 
+import com.shopbee.business.tenant.control.catalogue.TenantCatalogue;
+import com.shopbee.business.tenant.control.registry.TenantRegistry;
+import com.shopbee.business.tenant.control.registry.TenantRegistryConfig;
 import com.shopbee.business.tenant.control.repository.TenantRepository;
 import com.shopbee.business.tenant.entity.Tenant;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.quarkus.oidc.OidcTenantConfig;
 import io.smallrye.mutiny.Uni;
 import io.vertx.core.http.HttpServerRequest;
@@ -12,6 +16,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.time.Duration;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -23,15 +28,24 @@ import static org.mockito.Mockito.when;
 
 class KeycloakTenantResolverTest {
 
+    private final TenantCatalogue tenantCatalogue = mock();
     private final TenantRepository tenantRepository = mock();
     private final SecurityConfig securityConfig = mock();
     private final RoutingContext routingContext = mock();
     private final HttpServerRequest httpServerRequest = mock();
     private final Tenant tenant = mock();
-    private final KeycloakTenantResolver keycloakTenantResolver = new KeycloakTenantResolver(securityConfig, tenantRepository);
+    private final TenantRegistryConfig tenantRegistryConfig = mock();
+    private KeycloakTenantResolver keycloakTenantResolver;
 
     @BeforeEach
     void setUp() {
+        when(tenantRegistryConfig.maximumSize()).thenReturn(100);
+        when(tenantRegistryConfig.refreshAfterWrite()).thenReturn(Duration.ofMinutes(1));
+        when(tenantRegistryConfig.expireAfterWrite()).thenReturn(Duration.ofMinutes(10));
+        when(tenantRegistryConfig.unknownMaximumSize()).thenReturn(100);
+        when(tenantRegistryConfig.unknownExpireAfterWrite()).thenReturn(Duration.ofSeconds(30));
+        TenantRegistry tenantRegistry = new TenantRegistry(tenantCatalogue, tenantRepository, tenantRegistryConfig, new SimpleMeterRegistry());
+        keycloakTenantResolver = new KeycloakTenantResolver(securityConfig, tenantRegistry);
         keycloakTenantResolver.getCacheForTesting().clear();
 
         when(routingContext.request()).thenReturn(httpServerRequest);